@@ -0,0 +1,99 @@
+package mrducky;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+
+/**
+ * Measures end-to-end command handling, from raw input to response text, for each command type.
+ * Mutating commands include the save they trigger.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MrDuckyAppBenchmark {
+    @Param({"1000"})
+    private int size;
+
+    @Param({
+        "list",
+        "help",
+        "mark 1",
+        "unmark 1",
+        "find book",
+        "due 1/03/2026 1/04/2026",
+        "on 14/03/2026",
+        "overlaps 1/03/2026 7/03/2026",
+        "todo read book",
+        "deadline return book /by 2/12/2026 1800",
+        "event project meeting /from 2/12/2026 1400 /to 2/12/2026 1600",
+        "unknown command"
+    })
+    private String command;
+
+    private Path directory;
+    private MrDuckyApp app;
+    private String deleteAdded;
+
+    /**
+     * Starts each iteration from a fresh file of generated tasks, so adds don't pile up across iterations.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException, MrDuckyException {
+        directory = Files.createTempDirectory("mrducky-bench");
+        Storage storage = new Storage(directory.resolve("mrducky.txt"));
+        storage.save(TaskGenerator.generateTasks(size, 42));
+        app = new MrDuckyApp(storage);
+        deleteAdded = "delete " + (size + 1);
+    }
+
+    /**
+     * Deletes the task file.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Handles the command.
+     */
+    @Benchmark
+    public String getResponse() {
+        return app.getResponse(command);
+    }
+
+    /**
+     * Adds a todo and deletes it again, keeping the list the same size.
+     */
+    @Benchmark
+    public String addThenDelete() {
+        app.getResponse("todo read book");
+        return app.getResponse(deleteAdded);
+    }
+}
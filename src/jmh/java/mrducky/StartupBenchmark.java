@@ -0,0 +1,108 @@
+package mrducky;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+
+/**
+ * Measures how long the GUI's start method is held up by the tasks, in a freshly started JVM
+ * each time, so class loading counts as it does at startup. The eager load is what the window
+ * used to wait for. With the deferred load the window only waits for the command thread to
+ * start, and the first response still comes once the tasks are in.
+ *
+ * <p>The time to the first frame of the real window, with and without the class-data sharing
+ * archive, is measured by {@code ./gradlew startupBenchmark}, which needs a display.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Thread)
+public class StartupBenchmark {
+    @Param({"100000"})
+    private int size;
+
+    private Path directory;
+    private Path file;
+    private CommandExecutor executor;
+
+    /**
+     * Writes the generated tasks the app starts from.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, MrDuckyException {
+        directory = Files.createTempDirectory("mrducky-bench");
+        file = directory.resolve("mrducky.txt");
+        new Storage(file).save(TaskGenerator.generateTasks(size, 42));
+    }
+
+    /**
+     * Waits for any deferred load, then deletes the task file.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Loads the tasks before the window could show.
+     */
+    @Benchmark
+    public MrDuckyApp eagerLoad() {
+        return new MrDuckyApp(Storage.open(file));
+    }
+
+    /**
+     * Starts loading the tasks on the command thread, as the window now does.
+     */
+    @Benchmark
+    public CommandExecutor deferredLoad() {
+        executor = new CommandExecutor(() -> new MrDuckyApp(Storage.open(file)),
+                CommandExecutor.DEFAULT_QUEUE_CAPACITY, Runnable::run);
+        return executor;
+    }
+
+    /**
+     * Starts loading the tasks on the command thread and waits for the answer to a command typed straight away.
+     */
+    @Benchmark
+    public String deferredLoadFirstResponse() throws InterruptedException {
+        executor = new CommandExecutor(() -> new MrDuckyApp(Storage.open(file)),
+                CommandExecutor.DEFAULT_QUEUE_CAPACITY, Runnable::run);
+        CountDownLatch isAnswered = new CountDownLatch(1);
+        String[] response = new String[1];
+        executor.submit("list 1", answer -> {
+            response[0] = answer;
+            isAnswered.countDown();
+        });
+        isAnswered.await();
+        return response[0];
+    }
+}
@@ -0,0 +1,73 @@
+package mrducky;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Generates synthetic tasks and commands for benchmarks.
+ * Output depends only on the seed, so runs are comparable.
+ */
+public final class TaskGenerator {
+    private static final String[] WORDS = {
+        "read", "book", "return", "library", "submit", "report", "project", "meeting", "buy", "milk",
+        "call", "mum", "review", "pull", "request", "plan", "trip", "pay", "rent", "gym",
+        "write", "essay", "clean", "room", "prepare", "slides", "email", "tutor", "fix", "bike"
+    };
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private TaskGenerator() {
+    }
+
+    /**
+     * Returns a mix of todos, deadlines and events with two- to five-word descriptions.
+     *
+     * @param count Number of tasks.
+     * @param seed Random seed.
+     * @return Generated tasks.
+     */
+    public static List<Task> generateTasks(int count, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = description(random) + " " + i;
+            LocalDateTime time = BASE_TIME.plusMinutes(random.nextInt(525_600));
+            Task task;
+            switch (random.nextInt(3)) {
+            case 0:
+                task = new ToDo(description);
+                break;
+            case 1:
+                task = new Deadline(description, time);
+                break;
+            default:
+                task = new Event(description, time, time.plusMinutes(30 + random.nextInt(240)));
+                break;
+            }
+            task.setDone(random.nextInt(4) == 0);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns a random description built from common task words.
+     *
+     * @param random Source of randomness.
+     * @return Description of two to five words.
+     */
+    public static String description(Random random) {
+        StringBuilder builder = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        int words = 1 + random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            builder.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package mrducky.parser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mrducky.exception.MrDuckyException;
+
+/**
+ * Measures the cost of parsing each kind of command argument.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+    private String markInput = "mark 42";
+    private String deadlineInput = "deadline return book to the library /by 2/12/2019 1800";
+    private String eventInput = "event project meeting /from 2/12/2019 1400 /to 2/12/2019 1600";
+
+    /**
+     * Extracts the command word.
+     */
+    @Benchmark
+    public String getCommandWord() {
+        return Parser.getCommandWord(deadlineInput);
+    }
+
+    /**
+     * Parses a task index.
+     */
+    @Benchmark
+    public int parseIndex() throws MrDuckyException {
+        return Parser.parseIndex(markInput, "mark");
+    }
+
+    /**
+     * Splits a deadline into description and due time.
+     */
+    @Benchmark
+    public String[] parseDeadline() throws MrDuckyException {
+        return Parser.parseDeadline(deadlineInput);
+    }
+
+    /**
+     * Splits an event into description, start and end times.
+     */
+    @Benchmark
+    public String[] parseEvent() throws MrDuckyException {
+        return Parser.parseEvent(eventInput);
+    }
+}
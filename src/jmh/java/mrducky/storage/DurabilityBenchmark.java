@@ -0,0 +1,94 @@
+package mrducky.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mrducky.TaskGenerator;
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Measures the latency of a full save and of a journal append under each durability.
+ * Sampled rather than averaged, so the results show the tail that fsync adds.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurabilityBenchmark {
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"none", "os", "fsync"})
+    private String durability;
+
+    private Path directory;
+    private Storage plain;
+    private JournaledStorage journaled;
+    private List<Task> tasks;
+    private Task added;
+
+    /**
+     * Creates storages in a temporary directory, both using the chosen durability.
+     */
+    @Setup
+    public void setUp() throws IOException, MrDuckyException {
+        directory = Files.createTempDirectory("mrducky-bench");
+        Durability policy = Durability.valueOf(durability.toUpperCase());
+        plain = new Storage(directory.resolve("plain.txt"));
+        plain.setDurability(policy);
+        // Large enough that the benchmark never triggers a compaction
+        journaled = new JournaledStorage(directory.resolve("journal.txt"), Long.MAX_VALUE);
+        journaled.setDurability(policy);
+        tasks = TaskGenerator.generateTasks(size, 42);
+        journaled.save(tasks);
+        added = new ToDo("benchmark task");
+    }
+
+    /**
+     * Deletes the task files.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Rewrites the whole plain file.
+     */
+    @Benchmark
+    public void save() throws MrDuckyException {
+        plain.save(tasks);
+    }
+
+    /**
+     * Appends one record to the journal.
+     */
+    @Benchmark
+    public void journalAppend() throws MrDuckyException {
+        journaled.saveAdded(tasks, added);
+    }
+}
@@ -0,0 +1,105 @@
+package mrducky.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mrducky.TaskGenerator;
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Measures loading and saving a whole task file, and saving a single mark, for each storage
+ * mode and list size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"plain", "journal", "binary", "segmented", "lazy"})
+    private String mode;
+
+    private Path directory;
+    private Storage storage;
+    private List<Task> tasks;
+
+    /**
+     * Writes a generated task file in the chosen mode.
+     */
+    @Setup
+    public void setUp() throws IOException, MrDuckyException {
+        directory = Files.createTempDirectory("mrducky-bench");
+        System.setProperty(Storage.MODE_PROPERTY, mode);
+        storage = Storage.open(directory.resolve("mrducky.txt"));
+        tasks = TaskGenerator.generateTasks(size, 42);
+        storage.save(tasks);
+    }
+
+    /**
+     * Deletes the task files.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Reads every task back from disk.
+     */
+    @Benchmark
+    public List<Task> load() throws MrDuckyException {
+        return storage.load();
+    }
+
+    /**
+     * Builds the task list the app starts with, which the lazy mode fills in as tasks are used.
+     */
+    @Benchmark
+    public TaskList loadTaskList() throws MrDuckyException {
+        return storage.loadTaskList();
+    }
+
+    /**
+     * Rewrites the whole file.
+     */
+    @Benchmark
+    public void save() throws MrDuckyException {
+        storage.save(tasks);
+    }
+
+    /**
+     * Flips one task's done status and saves just that change.
+     */
+    @Benchmark
+    public void markOne() throws MrDuckyException {
+        Task task = tasks.get(size / 2);
+        task.setDone(!task.isDone());
+        storage.saveUpdated(tasks, size / 2);
+    }
+}
@@ -0,0 +1,143 @@
+package mrducky.storage;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Compares load throughput, in lines per second, of the hand-written line parser
+ * against the regex-based parser it replaced.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskLineParserBenchmark {
+    private static final int LINES = 10_000;
+
+    private String[] lines;
+    private String content;
+    private TaskLineParser parser;
+
+    /**
+     * Generates a mix of todo, deadline and event lines in the stored text format.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2026, 2, 6, 9, 0);
+        lines = new String[LINES];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            String done = random.nextBoolean() ? "1" : "0";
+            LocalDateTime time = base.plusMinutes(random.nextInt(500_000));
+            switch (i % 3) {
+            case 0:
+                lines[i] = "T | " + done + " | read chapter " + i;
+                break;
+            case 1:
+                lines[i] = "D | " + done + " | submit report " + i + " | " + time;
+                break;
+            default:
+                lines[i] = "E | " + done + " | project meeting " + i + " | " + time + " | " + time.plusHours(1);
+                break;
+            }
+            builder.append(lines[i]).append('\n');
+        }
+        content = builder.toString();
+        parser = new TaskLineParser();
+    }
+
+    /**
+     * Parses every line with the original {@code split}-based parser.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void regexSplit(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(parseWithRegex(line));
+        }
+    }
+
+    /**
+     * Parses every line with the hand-written scanner.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void handWritten(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(parser.parse(line));
+        }
+    }
+
+    /**
+     * Scans a whole file's content in place, the way {@link Storage#load()} does.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void handWrittenInPlace(Blackhole blackhole) {
+        int lineStart = 0;
+        int length = content.length();
+        while (lineStart < length) {
+            int lineEnd = content.indexOf('\n', lineStart);
+            blackhole.consume(parser.parse(content, lineStart, lineEnd));
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Returns the task on the given line using the original parsing code, kept as a baseline.
+     */
+    private static Task parseWithRegex(String line) {
+        String[] parts = line.split("\\s*\\|\\s*");
+        if (parts.length < 3) {
+            return null;
+        }
+        String type = parts[0];
+        boolean isDone = parts[1].equals("1");
+        String description = parts[2];
+
+        Task task;
+        switch (type) {
+        case "T":
+            task = new ToDo(description);
+            break;
+        case "D":
+            if (parts.length < 4) {
+                return null;
+            }
+            task = new Deadline(description, LocalDateTime.parse(parts[3]));
+            break;
+        case "E":
+            if (parts.length < 5) {
+                return null;
+            }
+            task = new Event(description, LocalDateTime.parse(parts[3]), LocalDateTime.parse(parts[4]));
+            break;
+        default:
+            return null;
+        }
+        task.setDone(isDone);
+        return task;
+    }
+}
@@ -0,0 +1,67 @@
+package mrducky.task;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mrducky.TaskGenerator;
+
+/**
+ * Measures {@code find} against the full scan it replaced, over generated task lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FindBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    // A rare word, a common word, a number suffix, and a two-letter keyword that skips the index
+    @Param({"bike", "book", "12345", "oo"})
+    private String keyword;
+
+    private TaskList tasks;
+    private List<Task> plainList;
+
+    /**
+     * Builds the task list and its indexes.
+     */
+    @Setup
+    public void setUp() {
+        plainList = TaskGenerator.generateTasks(size, 42);
+        tasks = new TaskList(plainList);
+    }
+
+    /**
+     * Looks the keyword up in the index.
+     */
+    @Benchmark
+    public List<Task> indexed() {
+        return tasks.find(keyword);
+    }
+
+    /**
+     * Lowercases and scans every description, as find used to.
+     */
+    @Benchmark
+    public List<Task> linearScan() {
+        String normalizedKeyword = keyword.toLowerCase();
+        return plainList.stream()
+                .filter(task -> task.getDescription().toLowerCase().contains(normalizedKeyword))
+                .toList();
+    }
+}
@@ -0,0 +1,63 @@
+package mrducky.task;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mrducky.TaskGenerator;
+import mrducky.command.QueryCommand;
+import mrducky.exception.MrDuckyException;
+
+/**
+ * Measures the query command over generated task lists, for queries answered from each index
+ * and from a full scan, with and without sorting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({
+        "query type:D done:false due<2026-12-01 text:\"report\" sort:due limit:50",
+        "query due>=1/06/2026 due<8/06/2026",
+        "query from>=1/06/2026 to<8/06/2026",
+        "query done:false limit:50",
+        "query done:false sort:description limit:50"
+    })
+    private String input;
+
+    private TaskList tasks;
+    private QueryCommand command;
+
+    /**
+     * Builds the task list and its indexes, and parses the query.
+     */
+    @Setup
+    public void setUp() throws MrDuckyException {
+        tasks = new TaskList(TaskGenerator.generateTasks(size, 42));
+        command = QueryCommand.parse(input);
+    }
+
+    /**
+     * Runs the query and formats the matches.
+     */
+    @Benchmark
+    public String query() {
+        return command.execute(tasks, null);
+    }
+}
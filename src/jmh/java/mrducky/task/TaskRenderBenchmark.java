@@ -0,0 +1,89 @@
+package mrducky.task;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import mrducky.TaskGenerator;
+
+/**
+ * Measures rendering every task in a list, as the list command does, with a new formatter
+ * per task, with the shared formatter, and with memoized display strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskRenderBenchmark {
+    @Param({"100000"})
+    private int size;
+
+    private List<Task> tasks;
+
+    /**
+     * Generates the tasks.
+     */
+    @Setup
+    public void setUp() {
+        tasks = TaskGenerator.generateTasks(size, 42);
+    }
+
+    /**
+     * Builds a formatter for every task, as toString used to.
+     */
+    @Benchmark
+    public void newFormatterPerTask(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(renderWithNewFormatter(task));
+        }
+    }
+
+    /**
+     * Renders with the shared formatter, clearing each memoized string first.
+     */
+    @Benchmark
+    public void sharedFormatter(Blackhole blackhole) {
+        for (Task task : tasks) {
+            task.setDone(task.isDone());
+            blackhole.consume(task.toString());
+        }
+    }
+
+    /**
+     * Returns the memoized strings.
+     */
+    @Benchmark
+    public void memoized(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(task.toString());
+        }
+    }
+
+    private static String renderWithNewFormatter(Task task) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
+        String status = (task.isDone() ? "[X] " : "[ ] ") + task.getDescription();
+        if (task instanceof Deadline) {
+            return "[D]" + status + " (by: " + ((Deadline) task).getDueDate().format(formatter) + ")";
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            return "[E]" + status + " (from: " + event.getFromTime().format(formatter) + " to: "
+                    + event.getToTime().format(formatter) + ")";
+        }
+        return "[T]" + status;
+    }
+}
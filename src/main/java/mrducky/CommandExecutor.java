@@ -0,0 +1,180 @@
+package mrducky;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs commands on a single background thread, one at a time and in the order submitted.
+ *
+ * <p>The GUI submits commands from the JavaFX application thread, which then stays free
+ * while commands run and their changes are saved. Responses are handed back through a
+ * callback executor, normally {@code Platform::runLater}, so they can update the UI.
+ * At most {@code queueCapacity} commands can wait at once. Further submissions are refused
+ * until the queue drains, so a slow disk slows the user down instead of letting work pile up.
+ *
+ * <p>The app can also be loaded on the command thread, so the window shows before the tasks
+ * are read. Commands submitted meanwhile wait behind the load, and the load counts as busy.
+ */
+public class CommandExecutor {
+    /** Number of commands that can wait to run when no capacity is given. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    private static final Logger logger = Logger.getLogger(CommandExecutor.class.getName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static final String LOAD_FAILED_MESSAGE = "OOPS!!! Your tasks could not be loaded, so I can't run that.";
+
+    private final CompletableFuture<MrDuckyApp> app = new CompletableFuture<>();
+    private final Executor callbackExecutor;
+    private final ThreadPoolExecutor worker;
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile Consumer<Boolean> onBusyChanged = isBusy -> { };
+
+    /**
+     * Creates an executor that runs commands against the given app.
+     *
+     * @param app App that handles the commands.
+     * @param queueCapacity Maximum number of commands waiting to run.
+     * @param callbackExecutor Executor that responses and busy updates are delivered on.
+     */
+    public CommandExecutor(MrDuckyApp app, int queueCapacity, Executor callbackExecutor) {
+        this(queueCapacity, callbackExecutor);
+        this.app.complete(app);
+    }
+
+    /**
+     * Creates an executor that loads its app on the command thread and then runs commands against it.
+     * Returns without waiting for the load.
+     *
+     * @param appLoader Creates the app, loading the tasks.
+     * @param queueCapacity Maximum number of commands waiting to run.
+     * @param callbackExecutor Executor that responses and busy updates are delivered on.
+     */
+    public CommandExecutor(Supplier<MrDuckyApp> appLoader, int queueCapacity, Executor callbackExecutor) {
+        this(queueCapacity, callbackExecutor);
+        pendingCount.incrementAndGet();
+        notifyBusyChanged();
+        worker.execute(() -> load(appLoader));
+    }
+
+    private CommandExecutor(int queueCapacity, Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "mrducky-commands");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Sets the listener told when commands start or stop being in progress, for example to
+     * show a saving indicator. It is called on the callback executor.
+     *
+     * @param onBusyChanged Listener given true while any command is queued or running.
+     */
+    public void setOnBusyChanged(Consumer<Boolean> onBusyChanged) {
+        this.onBusyChanged = onBusyChanged;
+    }
+
+    /**
+     * Calls the listener with the app once it has loaded, or straight away if it already has.
+     * It is called on the callback executor, and not at all if loading failed.
+     *
+     * @param onLoaded Listener given the loaded app.
+     */
+    public void whenLoaded(Consumer<MrDuckyApp> onLoaded) {
+        app.thenAccept(loaded -> callbackExecutor.execute(() -> onLoaded.accept(loaded)));
+    }
+
+    /**
+     * Queues a command to run after every command submitted before it.
+     *
+     * @param input User input.
+     * @param onResponse Called on the callback executor with the response.
+     * @return False if the queue is full and the command was not accepted.
+     */
+    public boolean submit(String input, Consumer<String> onResponse) {
+        if (pendingCount.getAndIncrement() == 0) {
+            notifyBusyChanged();
+        }
+        try {
+            worker.execute(() -> run(input, onResponse));
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (pendingCount.decrementAndGet() == 0) {
+                notifyBusyChanged();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of commands queued or running.
+     *
+     * @return Pending command count.
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Stops accepting commands and waits for the queued ones to finish.
+     */
+    public void shutdown() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Commands were still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void load(Supplier<MrDuckyApp> appLoader) {
+        try {
+            app.complete(appLoader.get());
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not load the tasks", e);
+            app.completeExceptionally(e);
+        }
+        finishOne();
+    }
+
+    private void run(String input, Consumer<String> onResponse) {
+        String response;
+        try {
+            // Never waits, since any load ran first on this thread
+            response = app.join().getResponse(input);
+        } catch (CompletionException e) {
+            response = LOAD_FAILED_MESSAGE;
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Command failed: " + input, e);
+            response = "OOPS!!! Something went wrong while running that command.";
+        }
+        String finalResponse = response;
+        callbackExecutor.execute(() -> onResponse.accept(finalResponse));
+        finishOne();
+    }
+
+    private void finishOne() {
+        if (pendingCount.decrementAndGet() == 0) {
+            notifyBusyChanged();
+        }
+    }
+
+    private void notifyBusyChanged() {
+        // Reads the count when delivered, so updates racing from two threads still settle on the right state
+        callbackExecutor.execute(() -> onBusyChanged.accept(pendingCount.get() > 0));
+    }
+}
@@ -1,50 +1,86 @@
 package mrducky;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
 import javafx.application.Application;
-import javafx.geometry.Insets;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.Region;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import mrducky.ui.DialogBox;
+import mrducky.metrics.Metrics;
+import mrducky.ui.ConversationList;
+import mrducky.ui.Message;
+import mrducky.ui.MessageCell;
+import mrducky.ui.Transcript;
 
 /**
  * JavaFX entry point for the MrDucky GUI.
+ *
+ * <p>The window shows before anything slow happens: the tasks load on the command thread, with
+ * commands typed meanwhile queued behind the load, and the images decode on JavaFX's background
+ * loader and appear in the messages once ready.
  */
 public class Main extends Application {
-
-    private ScrollPane scrollPane;
-    private VBox dialogContainer;
+    /** System property that makes the GUI print the time to its first frame and exit, for measuring startup. */
+    public static final String MEASURE_STARTUP_PROPERTY = "mrducky.measureStartup";
+    // Messages beyond this many are kept on disk and read back when scrolled to
+    private static final int TRANSCRIPT_CAPACITY = 1000;
+
+    private ListView<Message> conversationView;
+    private ConversationList conversation;
+    private Transcript transcript;
     private TextField userInput;
     private Button sendButton;
+    private Label savingIndicator;
     private Scene scene;
-    private MrDuckyApp app = new MrDuckyApp();
-    private Image userImage = new Image(this.getClass().getResourceAsStream("/images/user.png"));
-    private Image mrDuckyImage = new Image(this.getClass().getResourceAsStream("/images/mrducky.png"));
+    private CommandExecutor commandExecutor;
+    private Image userImage;
+    private Image mrDuckyImage;
+    private boolean isFirstFrameReported;
 
     @Override
     public void start(Stage stage) {
-        scrollPane = new ScrollPane();
-        dialogContainer = new VBox();
-        dialogContainer.setSpacing(10);
-        dialogContainer.setPadding(new Insets(10));
+        userImage = loadImageInBackground("/images/user.png");
+        mrDuckyImage = loadImageInBackground("/images/mrducky.png");
 
-        dialogContainer.getChildren().add(
-                DialogBox.getMrDuckyDialog("Hello! I'm MrDucky. How can I assist you today?", mrDuckyImage)
-        );
+        transcript = new Transcript(Path.of(System.getProperty("java.io.tmpdir"),
+                "mrducky-transcript-" + ProcessHandle.current().pid() + ".txt"), TRANSCRIPT_CAPACITY);
+        conversation = new ConversationList(transcript);
+        conversationView = new ListView<>(conversation);
+        // Cells are recycled while scrolling and all share the two decoded images
+        conversationView.setCellFactory(view -> new MessageCell(userImage, mrDuckyImage));
+        conversationView.setFocusTraversable(false);
 
-        scrollPane.setContent(dialogContainer);
+        conversation.append(new Message(false, "Hello! I'm MrDucky. How can I assist you today?"));
 
         userInput = new TextField();
         sendButton = new Button("Send");
+        savingIndicator = new Label("Loading\u2026");
+        savingIndicator.setVisible(false);
+
+        // Tasks load, and commands run and save, on a background thread, so the window stays responsive
+        commandExecutor = new CommandExecutor(() -> {
+            MrDuckyApp app = new MrDuckyApp();
+            // Here rather than on the JavaFX thread, as starting the platform MBean server takes a while
+            Metrics.registerMBean();
+            return app;
+        }, CommandExecutor.DEFAULT_QUEUE_CAPACITY, Platform::runLater);
+        commandExecutor.setOnBusyChanged(savingIndicator::setVisible);
+        commandExecutor.whenLoaded(app -> {
+            savingIndicator.setText("Saving\u2026");
+            if (app.getLoadError() != null) {
+                showResponse("Warning! Could not read data file: " + app.getLoadError());
+            }
+        });
 
         AnchorPane mainLayout = new AnchorPane();
-        mainLayout.getChildren().addAll(scrollPane, userInput, sendButton);
+        mainLayout.getChildren().addAll(conversationView, savingIndicator, userInput, sendButton);
 
         scene = new Scene(mainLayout);
 
@@ -55,19 +91,15 @@ public class Main extends Application {
 
         mainLayout.setPrefSize(400.0, 600.0);
 
-        scrollPane.setPrefSize(385, 535);
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.ALWAYS);
-
-        scrollPane.setVvalue(1.0);
-        scrollPane.setFitToWidth(true);
-
-        dialogContainer.setPrefHeight(Region.USE_COMPUTED_SIZE);
+        conversationView.setPrefSize(385, 535);
 
         userInput.setPrefWidth(325.0);
         sendButton.setPrefWidth(55.0);
 
-        AnchorPane.setTopAnchor(scrollPane, 1.0);
+        AnchorPane.setTopAnchor(conversationView, 1.0);
+
+        AnchorPane.setLeftAnchor(savingIndicator, 8.0);
+        AnchorPane.setBottomAnchor(savingIndicator, 32.0);
 
         AnchorPane.setBottomAnchor(sendButton, 1.0);
         AnchorPane.setRightAnchor(sendButton, 1.0);
@@ -78,25 +110,57 @@ public class Main extends Application {
         sendButton.setOnMouseClicked((event) -> handleUserInput());
         userInput.setOnAction((event) -> handleUserInput());
 
-        dialogContainer.heightProperty().addListener((observable) -> scrollPane.setVvalue(1.0));
-
         stage.setScene(scene);
+        if (Boolean.getBoolean(MEASURE_STARTUP_PROPERTY)) {
+            scene.addPostLayoutPulseListener(this::reportFirstFrame);
+        }
         stage.show();
     }
 
+    private Image loadImageInBackground(String resource) {
+        return new Image(getClass().getResource(resource).toExternalForm(), true);
+    }
+
+    /**
+     * Prints how long after the JVM started the first frame was laid out, then exits.
+     */
+    private void reportFirstFrame() {
+        if (isFirstFrameReported) {
+            return;
+        }
+        isFirstFrameReported = true;
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("First frame after " + millis + " ms");
+        Platform.exit();
+    }
+
     /**
-     * Creates dialog boxes for user input and MrDucky response, then clears input.
+     * Adds the user input to the conversation and queues it as a command, then clears input.
+     * MrDucky's response is added once the command has run.
      */
     private void handleUserInput() {
         String userText = userInput.getText();
         if (userText == null || userText.trim().isEmpty()) {
             return;
         }
-        String mrDuckyText = app.getResponse(userText);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(userText, userImage),
-                DialogBox.getMrDuckyDialog(mrDuckyText, mrDuckyImage)
-        );
+        if (!commandExecutor.submit(userText, this::showResponse)) {
+            // Leaves the input in place so the user can send it again
+            showResponse("OOPS!!! I'm still working through your earlier commands. Please try again in a moment.");
+            return;
+        }
+        conversation.append(new Message(true, userText));
+        conversationView.scrollTo(conversation.size() - 1);
         userInput.clear();
     }
+
+    private void showResponse(String mrDuckyText) {
+        conversation.append(new Message(false, mrDuckyText));
+        conversationView.scrollTo(conversation.size() - 1);
+    }
+
+    @Override
+    public void stop() {
+        commandExecutor.shutdown();
+        transcript.close();
+    }
 }
@@ -1,40 +1,48 @@
 package mrducky;
 
+import java.io.IOException;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.List;
-import java.util.ArrayList;
 
+import mrducky.command.Command;
+import mrducky.command.ListCommand;
 import mrducky.exception.MrDuckyException;
-import mrducky.parser.Parser;
+import mrducky.metrics.Metrics;
+import mrducky.server.MrDuckyServer;
 import mrducky.storage.Storage;
-import mrducky.task.Deadline;
-import mrducky.task.Event;
-import mrducky.task.Task;
-import mrducky.task.ToDo;
 import mrducky.ui.Ui;
 
 /**
  * Runs the MrDucky chatbot application.
  */
 public class MrDucky {
+    // Number of tasks formatted at a time when the whole list is printed
+    private static final int LIST_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_SERVER_PORT = 8080;
+
     /**
      * Runs the chatbot program loop.
+     * With {@code --batch <file>}, runs the commands in the file as one batch and exits instead.
+     * With {@code --server [port]}, serves every user's tasks over HTTP instead.
      *
      * @param args Command-line arguments.
      */
     public static void main(String[] args) {
         Ui ui = new Ui();
+        Metrics.registerMBean();
 
-        Storage storage = new Storage(Path.of("data", "mrducky.txt"));
-        List<Task> tasks;
-        try {
-            tasks = storage.load();
-        } catch (MrDuckyException e) {
-            ui.showLoadingError(e.getMessage());
-            tasks = new ArrayList<>();
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args, ui);
+            return;
+        }
+
+        MrDuckyApp app = new MrDuckyApp(Storage.open(Path.of("data", "mrducky.txt")));
+        if (app.getLoadError() != null) {
+            ui.showLoadingError(app.getLoadError());
+        }
+
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args, app, ui);
+            return;
         }
 
         ui.showWelcome();
@@ -43,7 +51,7 @@ public class MrDucky {
             String input = ui.readCommand();
             try {
                 // Handles the input, tasks list, and line separator for printing
-                if (handleInput(input, tasks, storage, ui)) {
+                if (handleInput(input, app, ui)) {
                     break;
                 }
             } catch (MrDuckyException e) {
@@ -53,127 +61,60 @@ public class MrDucky {
     }
 
     /**
-     * Processes user input and performs corresponding actions.
-     * @param input
-     * @param tasks
-     * @param storage
-     * @param ui
-     * @return
-     * @throws MrDuckyException
+     * Starts the HTTP server, keeping each user's tasks under data/users. The server keeps
+     * running after this returns, until the JVM is stopped.
      */
-    private static boolean handleInput(String input, List<Task> tasks, Storage storage, Ui ui) throws MrDuckyException {
+    private static void runServer(String[] args, Ui ui) {
+        try {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT;
+            MrDuckyServer server = MrDuckyServer.create(port, Path.of("data", "users"));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            ui.showMessage("Serving MrDucky on http://localhost:" + server.getPort() + "/users/<name>/");
+        } catch (NumberFormatException e) {
+            ui.showError("OOPS!!! Usage: --server [port]");
+        } catch (IOException e) {
+            ui.showError("OOPS!!! Could not start the server: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a batch script named on the command line and shows its summary.
+     */
+    private static void runBatch(String[] args, MrDuckyApp app, Ui ui) {
+        if (args.length != 2) {
+            ui.showError("OOPS!!! Usage: --batch <file>");
+            return;
+        }
+        try {
+            ui.showMessage(app.execute(app.parse("batch " + args[1])));
+        } catch (MrDuckyException e) {
+            ui.showError(e.getMessage());
+        }
+    }
+
+    /**
+     * Processes user input and shows the response.
+     *
+     * @param input User input.
+     * @param app App that runs the commands.
+     * @param ui UI to show the response on.
+     * @return True if the program should exit.
+     * @throws MrDuckyException If the command is invalid or fails.
+     */
+    private static boolean handleInput(String input, MrDuckyApp app, Ui ui) throws MrDuckyException {
         String trimmed = input == null ? "" : input.trim();
         if (trimmed.isEmpty()) {
             return false;
         }
 
-        String command = Parser.getCommandWord(trimmed).toLowerCase();
-        boolean hasNoArgs = trimmed.equalsIgnoreCase(command);
-        if (command.equals("bye") && hasNoArgs) {
-            ui.showGoodbye();
-            return true;
-        } else if (command.equals("list") && hasNoArgs) {
-            ui.showTaskList(tasks);
-            return false;
-        } else if (command.equals("help") && hasNoArgs) {
-            ui.showHelp();
-            return false;
-        } else if (command.equals("mark")) {
-            int index = Parser.parseIndex(trimmed, "mark");
-            Task t = tasks.get(index);
-            t.mark();
-            storage.save(tasks);
-            ui.showMarkedTask(t);
-            return false;
-        } else if (command.equals("unmark")) {
-            int index = Parser.parseIndex(trimmed, "unmark");
-            Task t = tasks.get(index);
-            t.unmark();
-            storage.save(tasks);
-            ui.showUnmarkedTask(t);
-            return false;
-        } else if (command.equals("todo")) {
-            String desc = Parser.parseTodo(trimmed);
-            if (desc.isEmpty()) {
-                throw new MrDuckyException("OOPS!!! The description of a todo cannot be empty.");
-            }
-            Task newTask = new ToDo(desc);
-            tasks.add(newTask);
-            storage.save(tasks);
-            ui.showAddedTask(newTask, tasks.size());
-            return false;
-        } else if (command.equals("deadline")) {
-            String[] parts = Parser.parseDeadline(trimmed);
-            if (parts[0].isEmpty()) {
-                throw new MrDuckyException("OOPS!!! The description of a deadline cannot be empty.");
-            }
-            // Parse date string to LocalDateTime
-            if (parts.length < 2 || parts[1].trim().isEmpty()) {
-                throw new MrDuckyException("OOPS!!! A deadline needs a /by time.");
-            }
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d/MM/yyyy HHmm");
-            LocalDateTime due;
-            // Parse and handle invalid format
-            try {
-                due = LocalDateTime.parse(parts[1].trim(), formatter);
-            } catch (DateTimeParseException e) {
-                throw new MrDuckyException("OOPS!!! Please use d/MM/yyyy HHmm for deadlines. "
-                        + "Example: 2/12/2019 1800");
-            }
-            Task newTask = new Deadline(parts[0].trim(), due);
-            tasks.add(newTask);
-            storage.save(tasks);
-            ui.showAddedTask(newTask, tasks.size());
-            return false;
-        } else if (command.equals("event")) {
-            String details = trimmed.substring(5).trim();
-            if (details.isEmpty()) {
-                throw new MrDuckyException("OOPS!!! The description of an event cannot be empty.");
-            }
-            String[] parts = details.split(" /from ", 2);
-            if (parts.length < 2) {
-                throw new MrDuckyException("OOPS!!! An event needs a /from time.");
-            }
-            String[] timeParts = parts[1].split(" /to ", 2);
-            if (timeParts.length < 2 || timeParts[0].trim().isEmpty() || timeParts[1].trim().isEmpty()) {
-                throw new MrDuckyException("OOPS!!! An event needs both /from and /to times.");
-            }
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d/MM/yyyy HHmm");
-            LocalDateTime from;
-            LocalDateTime to;
-            try {
-                from = LocalDateTime.parse(timeParts[0].trim(), formatter);
-                to = LocalDateTime.parse(timeParts[1].trim(), formatter);
-            } catch (DateTimeParseException e) {
-                throw new MrDuckyException("OOPS!!! Please use d/MM/yyyy HHmm for events. "
-                        + "Example: 2/12/2019 1800");
-            }
-            Task newTask = new Event(parts[0].trim(), from, to);
-            tasks.add(newTask);
-            storage.save(tasks);
-            ui.showAddedTask(newTask, tasks.size());
-            return false;
-        } else if (command.equals("delete")) {
-            int index = Parser.parseIndex(trimmed, "delete");
-            Task t = tasks.remove(index);
-            storage.save(tasks);
-            ui.showDeletedTask(t, tasks.size());
-            return false;
-        } else if (command.equals("find")) {
-            String keyword = trimmed.substring(4).trim();
-            if (keyword.isEmpty()) {
-                throw new MrDuckyException("OOPS!!! The keyword for find cannot be empty.");
-            }
-            String normalizedKeyword = keyword.toLowerCase();
-            List<Task> foundTasks = tasks.stream()
-                    .filter(task -> task.getDescription().toLowerCase().contains(normalizedKeyword))
-                    .toList();
-            ui.showFoundTasks(foundTasks);
-            return false;
-
+        Command command = app.parse(trimmed);
+        if (command instanceof ListCommand && ((ListCommand) command).isWholeList()) {
+            // The whole list is streamed out, so it never has to fit in one string
+            app.streamList(command, LIST_CHUNK_SIZE, ui::showTaskList);
+        } else {
+            ui.showMessage(app.execute(command));
         }
-        throw new MrDuckyException("OOPS!!! I'm sorry, but I don't know what that means :-(");
+        return command.isExit();
     }
-
 }
-
@@ -1,49 +1,113 @@
 package mrducky;
 
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
+import mrducky.command.Command;
+import mrducky.command.CommandRegistry;
+import mrducky.command.TaskFormatter;
 import mrducky.exception.MrDuckyException;
-import mrducky.parser.Parser;
+import mrducky.metrics.CommandEvent;
+import mrducky.metrics.Metrics;
 import mrducky.storage.Storage;
-import mrducky.task.Deadline;
-import mrducky.task.Event;
 import mrducky.task.Task;
-import mrducky.task.ToDo;
+import mrducky.task.TaskList;
 
 /**
  * Core logic for MrDucky that converts user input into response strings.
+ * Both the GUI and the command-line front end run their commands through it.
+ * It is safe to call from many threads: changes to the task list and the matching
+ * storage writes happen one at a time, while listing and searching run concurrently.
+ * How long loading and each command take is recorded in the process-wide {@link Metrics}.
  */
 public class MrDuckyApp {
-    private static final String DATE_FORMAT = "d/MM/yyyy HHmm";
     private final Storage storage;
-    private final List<Task> tasks;
+    private final TaskList tasks;
+    private final CommandRegistry registry;
+    private final String loadError;
 
     /**
      * Creates a MrDuckyApp with default storage path.
      */
     public MrDuckyApp() {
-        this(new Storage(Path.of("data", "mrducky.txt")));
+        this(Storage.open(Path.of("data", "mrducky.txt")));
     }
 
     /**
-     * Creates a MrDuckyApp with the given storage.
+     * Creates a MrDuckyApp with the given storage and the built-in commands.
      *
      * @param storage Storage instance to load and save tasks.
      */
     public MrDuckyApp(Storage storage) {
+        this(storage, CommandRegistry.createDefault());
+    }
+
+    /**
+     * Creates a MrDuckyApp with the given storage and commands.
+     *
+     * @param storage Storage instance to load and save tasks.
+     * @param registry Registry of the commands the app understands.
+     */
+    public MrDuckyApp(Storage storage, CommandRegistry registry) {
         this.storage = storage;
-        List<Task> loadedTasks;
+        this.registry = registry;
+        // Changes are made while holding the app, so storage writing changes later holds it too
+        storage.setMutationLock(this);
+        TaskList loadedTasks;
+        String error = null;
+        long start = System.nanoTime();
         try {
-            loadedTasks = storage.load();
+            loadedTasks = storage.loadTaskList();
         } catch (MrDuckyException e) {
-            loadedTasks = new ArrayList<>();
+            loadedTasks = new TaskList(new ArrayList<>());
+            error = e.getMessage();
         }
+        Metrics.getDefault().recordLoad(System.nanoTime() - start);
         this.tasks = loadedTasks;
+        this.loadError = error;
+    }
+
+    /**
+     * Returns the task list the app runs commands against, for reading it directly.
+     * Changes should go through {@link #execute(Command)}, so they are saved.
+     *
+     * @return The task list.
+     */
+    public TaskList getTaskList() {
+        return tasks;
+    }
+
+    /**
+     * Writes out any changes the storage is still holding back.
+     *
+     * @throws MrDuckyException If the changes cannot be written.
+     */
+    public void flush() throws MrDuckyException {
+        storage.flush();
+    }
+
+    /**
+     * Writes out any changes the storage is still holding back and releases the storage.
+     * The app must not be used afterwards.
+     *
+     * @throws MrDuckyException If the changes cannot be written.
+     */
+    public void close() throws MrDuckyException {
+        storage.close();
+    }
+
+    /**
+     * Returns why the tasks could not be loaded, if they could not.
+     *
+     * @return Error message, or null if the tasks loaded.
+     */
+    public String getLoadError() {
+        return loadError;
     }
 
     /**
@@ -57,173 +121,121 @@ public class MrDuckyApp {
         if (trimmed.isEmpty()) {
             return "";
         }
-
-        String command = Parser.getCommandWord(trimmed).toLowerCase();
-        boolean hasNoArgs = trimmed.equalsIgnoreCase(command);
         try {
-            if (command.equals("bye") && hasNoArgs) {
-                return "Bye. Hope to see you again soon!";
-            } else if (command.equals("list") && hasNoArgs) {
-                return formatTaskList();
-            } else if (command.equals("help") && hasNoArgs) {
-                return formatHelp();
-            } else if (command.equals("mark")) {
-                return handleMark(trimmed);
-            } else if (command.equals("unmark")) {
-                return handleUnmark(trimmed);
-            } else if (command.equals("todo")) {
-                return handleTodo(trimmed);
-            } else if (command.equals("deadline")) {
-                return handleDeadline(trimmed);
-            } else if (command.equals("event")) {
-                return handleEvent(trimmed);
-            } else if (command.equals("delete")) {
-                return handleDelete(trimmed);
-            } else if (command.equals("find")) {
-                return handleFind(trimmed);
-            }
+            return execute(parse(trimmed));
         } catch (MrDuckyException e) {
             return e.getMessage();
         }
-        return "OOPS!!! I'm sorry, but I don't know what that means :-(";
     }
 
-    private String handleMark(String input) throws MrDuckyException {
-        int index = Parser.parseIndex(input, "mark");
-        if (index < 0 || index >= tasks.size()) {
-            throw new MrDuckyException("OOPS!!! The task index provided is out of bounds.");
-        }
-        Task task = tasks.get(index);
-        task.mark();
-        storage.save(tasks);
-        return "Nice! I've marked this task as done:\n  " + task;
-    }
-
-    private String handleUnmark(String input) throws MrDuckyException {
-        int index = Parser.parseIndex(input, "unmark");
-        if (index < 0 || index >= tasks.size()) {
-            throw new MrDuckyException("OOPS!!! The task index provided is out of bounds.");
-        }
-        Task task = tasks.get(index);
-        task.unmark();
-        storage.save(tasks);
-        return "OK, I've marked this task as not done yet:\n  " + task;
-    }
-
-    private String handleTodo(String input) throws MrDuckyException {
-        String desc = Parser.parseTodo(input);
-        Task newTask = new ToDo(desc);
-        tasks.add(newTask);
-        storage.save(tasks);
-        return "Got it. I've added this task:\n  " + newTask
-                + "\nNow you have " + tasks.size() + " tasks in the list.";
+    /**
+     * Parses user input into a command without running it.
+     *
+     * @param input Non-empty user input.
+     * @return The parsed command.
+     * @throws MrDuckyException If the command is unknown or its arguments are invalid.
+     */
+    public Command parse(String input) throws MrDuckyException {
+        return registry.parse(input.trim());
     }
 
-    private String handleDeadline(String input) throws MrDuckyException {
-        String[] parts = Parser.parseDeadline(input);
-        if (parts.length < 2 || parts[1].trim().isEmpty()) {
-            throw new MrDuckyException("OOPS!!! A deadline needs a /by time.");
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_FORMAT);
-        LocalDateTime due;
+    /**
+     * Runs a parsed command. Commands that change the task list run one at a time.
+     *
+     * @param command The command to run.
+     * @return Response message for display.
+     * @throws MrDuckyException If the command cannot be carried out.
+     */
+    public String execute(Command command) throws MrDuckyException {
+        String name = command.getName();
+        CommandEvent event = new CommandEvent(name);
+        event.begin();
+        long start = System.nanoTime();
+        boolean isFailed = true;
         try {
-            due = LocalDateTime.parse(parts[1].trim(), formatter);
-        } catch (DateTimeParseException e) {
-            throw new MrDuckyException("OOPS!!! Please use d/MM/yyyy HHmm for deadlines. "
-                    + "Example: 2/12/2019 1800");
+            String response = run(command);
+            isFailed = false;
+            return response;
+        } finally {
+            finish(name, event, start, isFailed);
         }
-        Task newTask = new Deadline(parts[0].trim(), due);
-        tasks.add(newTask);
-        storage.save(tasks);
-        return "Got it. I've added this task:\n  " + newTask
-                + "\nNow you have " + tasks.size() + " tasks in the list.";
     }
 
-    private String handleEvent(String input) throws MrDuckyException {
-        String details = input.substring(5).trim();
-        if (details.isEmpty()) {
-            throw new MrDuckyException("OOPS!!! The description of an event cannot be empty.");
-        }
-        String[] parts = details.split(" /from ", 2);
-        if (parts.length < 2) {
-            throw new MrDuckyException("OOPS!!! An event needs a /from time.");
-        }
-        String[] timeParts = parts[1].split(" /to ", 2);
-        if (timeParts.length < 2 || timeParts[0].trim().isEmpty() || timeParts[1].trim().isEmpty()) {
-            throw new MrDuckyException("OOPS!!! An event needs both /from and /to times.");
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_FORMAT);
-        LocalDateTime from;
-        LocalDateTime to;
+    /**
+     * Runs a command that lists the whole task list by handing the list, in chunks from
+     * {@link #listChunks}, to the given display. The chunks are formatted as the display writes
+     * them out, so the time recorded for the command includes the display's.
+     *
+     * @param command The list command being run.
+     * @param chunkSize Maximum number of tasks per chunk.
+     * @param display Writes out the chunks.
+     */
+    public void streamList(Command command, int chunkSize, Consumer<Iterator<String>> display) {
+        String name = command.getName();
+        CommandEvent event = new CommandEvent(name);
+        event.begin();
+        long start = System.nanoTime();
+        boolean isFailed = true;
         try {
-            from = LocalDateTime.parse(timeParts[0].trim(), formatter);
-            to = LocalDateTime.parse(timeParts[1].trim(), formatter);
-        } catch (DateTimeParseException e) {
-            throw new MrDuckyException("OOPS!!! Please use d/MM/yyyy HHmm for events. "
-                    + "Example: 2/12/2019 1800");
+            display.accept(listChunks(chunkSize));
+            isFailed = false;
+        } finally {
+            finish(name, event, start, isFailed);
         }
-        Task newTask = new Event(parts[0].trim(), from, to);
-        tasks.add(newTask);
-        storage.save(tasks);
-        return "Got it. I've added this task:\n  " + newTask
-                + "\nNow you have " + tasks.size() + " tasks in the list.";
     }
 
-    private String handleDelete(String input) throws MrDuckyException {
-        int index = Parser.parseIndex(input, "delete");
-        Task task = tasks.remove(index);
-        storage.save(tasks);
-        return "Noted. I've removed this task:\n  " + task
-                + "\nNow you have " + tasks.size() + " tasks in the list.";
+    private static void finish(String name, CommandEvent event, long start, boolean isFailed) {
+        Metrics.getDefault().recordCommand(name, System.nanoTime() - start);
+        event.setFailed(isFailed);
+        event.commit();
     }
 
-    private String handleFind(String input) throws MrDuckyException {
-        String keyword = input.substring(4).trim();
-        if (keyword.isEmpty()) {
-            throw new MrDuckyException("OOPS!!! The keyword for find cannot be empty.");
-        }
-        String normalizedKeyword = keyword.toLowerCase();
-        List<Task> foundTasks = tasks.stream()
-                .filter(task -> task.getDescription().toLowerCase().contains(normalizedKeyword))
-                .toList();
-        if (foundTasks.isEmpty()) {
-            return "No matching tasks found.";
-        }
-        StringBuilder builder = new StringBuilder("Here are the matching tasks in your list:\n");
-        for (int i = 0; i < foundTasks.size(); i++) {
-            builder.append(i + 1).append(".").append(foundTasks.get(i));
-            if (i < foundTasks.size() - 1) {
-                builder.append("\n");
+    private String run(Command command) throws MrDuckyException {
+        try {
+            if (command.isMutating()) {
+                synchronized (this) {
+                    return command.execute(tasks, storage);
+                }
             }
+            return command.execute(tasks, storage);
+        } catch (UncheckedIOException e) {
+            // Tasks read from disk as they are first used can fail part way through a command
+            throw new MrDuckyException(e.getMessage());
         }
-        return builder.toString();
     }
 
-    private String formatTaskList() {
-        if (tasks.isEmpty()) {
-            return "Here are the tasks in your list:\n(no tasks yet)";
+    /**
+     * Returns the task list as numbered lines, in chunks of at most {@code chunkSize} tasks.
+     * The chunks cover the tasks as they were when this method was called, and each chunk is
+     * only formatted when it is asked for, so large lists can be written out or rendered
+     * piece by piece instead of as one string.
+     *
+     * @param chunkSize Maximum number of tasks per chunk.
+     * @return Iterator over the chunks, in list order.
+     */
+    public Iterator<String> listChunks(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
         }
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < tasks.size(); i++) {
-            builder.append(i + 1).append(".").append(tasks.get(i));
-            if (i < tasks.size() - 1) {
-                builder.append("\n");
+        List<Task> currentTasks = tasks.snapshot();
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < currentTasks.size();
             }
-        }
-        return "Here are the tasks in your list:\n" + builder;
-    }
 
-    private String formatHelp() {
-        return "Here are the commands you can use:\n"
-                + "  list\n"
-                + "  todo <description>\n"
-                + "  deadline <description> /by d/MM/yyyy HHmm\n"
-                + "  event <description> /from d/MM/yyyy HHmm /to d/MM/yyyy HHmm\n"
-                + "  mark <index>\n"
-                + "  unmark <index>\n"
-                + "  delete <index>\n"
-                + "  find <keyword>\n"
-                + "  bye";
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int end = Math.min(currentTasks.size(), next + chunkSize);
+                String chunk = TaskFormatter.formatNumbered(currentTasks.subList(next, end), next + 1);
+                next = end;
+                return chunk;
+            }
+        };
     }
 }
-
@@ -0,0 +1,81 @@
+package mrducky.command;
+
+import java.time.LocalDateTime;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.parser.Parser;
+import mrducky.storage.Storage;
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+import mrducky.task.ToDo;
+
+/**
+ * Adds a todo, deadline or event to the task list.
+ */
+public class AddCommand implements Command {
+    private final Task task;
+
+    /**
+     * Creates a command that adds the given task.
+     *
+     * @param task The task to add.
+     */
+    public AddCommand(Task task) {
+        this.task = task;
+    }
+
+    /**
+     * Parses a todo command.
+     *
+     * @param input Trimmed user input.
+     * @return Command adding the todo.
+     * @throws MrDuckyException If the description is missing.
+     */
+    public static AddCommand parseTodo(String input) throws MrDuckyException {
+        return new AddCommand(new ToDo(Parser.parseTodo(input)));
+    }
+
+    /**
+     * Parses a deadline command.
+     *
+     * @param input Trimmed user input.
+     * @return Command adding the deadline.
+     * @throws MrDuckyException If the description or due time is missing or invalid.
+     */
+    public static AddCommand parseDeadline(String input) throws MrDuckyException {
+        String[] parts = Parser.parseDeadline(input);
+        LocalDateTime due = Parser.parseDateTime(parts[1], "deadlines");
+        return new AddCommand(new Deadline(parts[0], due));
+    }
+
+    /**
+     * Parses an event command.
+     *
+     * @param input Trimmed user input.
+     * @return Command adding the event.
+     * @throws MrDuckyException If the description or times are missing or invalid, or the end is before the start.
+     */
+    public static AddCommand parseEvent(String input) throws MrDuckyException {
+        String[] parts = Parser.parseEvent(input);
+        LocalDateTime from = Parser.parseDateTime(parts[1], "events");
+        LocalDateTime to = Parser.parseDateTime(parts[2], "events");
+        if (to.isBefore(from)) {
+            throw new MrDuckyException("OOPS!!! An event cannot end before it starts.");
+        }
+        return new AddCommand(new Event(parts[0], from, to));
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) throws MrDuckyException {
+        tasks.addTask(task);
+        storage.saveAdded(tasks.asList(), task);
+        return TaskFormatter.formatChange("Got it. I've added this task:", task, tasks.getSize());
+    }
+
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
@@ -0,0 +1,160 @@
+package mrducky.command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Runs every command in a script file as one change to the task list.
+ *
+ * <p>The script is read one line at a time and each command runs on a copy of the list,
+ * with saving held back. Once the whole script has run, the copy is saved once and then
+ * takes the place of the list. If the file cannot be read or the save fails, neither the
+ * list nor the data file changes. A command that fails is reported with its line number
+ * and the rest of the script still runs, the same as typing the commands one by one.
+ */
+public class BatchCommand implements Command {
+    // Failures listed in the summary; the rest are only counted
+    private static final int MAX_ERRORS_SHOWN = 20;
+
+    private final Path file;
+    private final CommandRegistry registry;
+
+    /**
+     * Creates a command that runs the script in the given file.
+     *
+     * @param file Script file, one command per line.
+     * @param registry Registry used to parse the script's commands.
+     */
+    public BatchCommand(Path file, CommandRegistry registry) {
+        this.file = file;
+        this.registry = registry;
+    }
+
+    /**
+     * Parses a batch command.
+     *
+     * @param input Trimmed user input.
+     * @param registry Registry used to parse the script's commands.
+     * @return The batch command.
+     * @throws MrDuckyException If the file name is missing or invalid.
+     */
+    public static BatchCommand parse(String input, CommandRegistry registry) throws MrDuckyException {
+        String fileName = input.substring("batch".length()).trim();
+        if (fileName.isEmpty()) {
+            throw new MrDuckyException("OOPS!!! Please give the script file to run. Example: batch tasks.txt");
+        }
+        try {
+            return new BatchCommand(Path.of(fileName), registry);
+        } catch (InvalidPathException e) {
+            throw new MrDuckyException("OOPS!!! That is not a valid file name: " + fileName);
+        }
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) throws MrDuckyException {
+        TaskList working = tasks.copy();
+        Storage deferred = new DeferredStorage(storage.getFilePath());
+        int succeeded = 0;
+        int failed = 0;
+        List<String> errors = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                try {
+                    Command command = registry.parse(trimmed);
+                    if (command.isExit()) {
+                        // A script may end with bye, like a typed session
+                        break;
+                    }
+                    if (command instanceof BatchCommand) {
+                        throw new MrDuckyException("OOPS!!! A batch script cannot run another batch.");
+                    }
+                    command.execute(working, deferred);
+                    succeeded++;
+                } catch (MrDuckyException e) {
+                    failed++;
+                    if (errors.size() < MAX_ERRORS_SHOWN) {
+                        errors.add("Line " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new MrDuckyException("OOPS!!! Could not read batch file: " + file);
+        }
+
+        try {
+            storage.save(working.snapshot());
+        } catch (MrDuckyException e) {
+            throw new MrDuckyException("OOPS!!! The batch was not saved, so no changes were made. "
+                    + e.getMessage());
+        }
+        tasks.replaceWith(working);
+        return formatSummary(succeeded, failed, errors, tasks.getSize());
+    }
+
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+
+    private static String formatSummary(int succeeded, int failed, List<String> errors, int total) {
+        StringBuilder summary = new StringBuilder("Batch done: ")
+                .append(succeeded).append(" of ").append(succeeded + failed)
+                .append(" commands succeeded and were saved.\n")
+                .append("Now you have ").append(total).append(" tasks in the list.");
+        if (failed > 0) {
+            summary.append("\nThese commands failed:");
+            for (String error : errors) {
+                summary.append('\n').append(error);
+            }
+            if (failed > errors.size()) {
+                summary.append("\n... and ").append(failed - errors.size()).append(" more.");
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Storage that ignores saves, so the commands in a script leave the data file alone
+     * until the whole script has run.
+     */
+    private static class DeferredStorage extends Storage {
+        DeferredStorage(Path filePath) {
+            super(filePath);
+        }
+
+        @Override
+        public void save(List<Task> tasks) {
+        }
+
+        @Override
+        public void saveAdded(List<Task> tasks, Task task) {
+        }
+
+        @Override
+        public void saveUpdated(List<Task> tasks, int index) {
+        }
+
+        @Override
+        public void saveDeleted(List<Task> tasks, int index) {
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.TaskList;
+
+/**
+ * Saves any pending changes and says goodbye.
+ */
+public class ByeCommand implements Command {
+    private static final ByeCommand INSTANCE = new ByeCommand();
+
+    /**
+     * Parses the bye command, which takes no arguments.
+     *
+     * @param input Trimmed user input.
+     * @return The bye command.
+     * @throws MrDuckyException If arguments were given.
+     */
+    public static ByeCommand parse(String input) throws MrDuckyException {
+        if (input.indexOf(' ') >= 0) {
+            throw new MrDuckyException(CommandRegistry.UNKNOWN_COMMAND_MESSAGE);
+        }
+        return INSTANCE;
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) throws MrDuckyException {
+        storage.flush();
+        return "Bye. Hope to see you again soon!";
+    }
+
+    @Override
+    public boolean isExit() {
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.TaskList;
+
+/**
+ * Represents a parsed user command, ready to run against a task list.
+ */
+public interface Command {
+    /**
+     * Runs the command.
+     *
+     * @param tasks The task list.
+     * @param storage Storage to save changes to.
+     * @return Response message for display.
+     * @throws MrDuckyException If the command cannot be carried out.
+     */
+    String execute(TaskList tasks, Storage storage) throws MrDuckyException;
+
+    /**
+     * Returns whether the command changes the task list. Changing commands are run one at a time.
+     *
+     * @return True if the command adds, changes or removes tasks.
+     */
+    default boolean isMutating() {
+        return false;
+    }
+
+    /**
+     * Returns the name the command's running times are recorded under.
+     * Defaults to the class name without "Command", in lowercase.
+     *
+     * @return Name of the command.
+     */
+    default String getName() {
+        String className = getClass().getSimpleName();
+        String name = className.endsWith("Command")
+                ? className.substring(0, className.length() - "Command".length())
+                : className;
+        return name.isEmpty() ? "command" : name.toLowerCase();
+    }
+
+    /**
+     * Returns whether the program should exit after this command.
+     *
+     * @return True for the bye command.
+     */
+    default boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+
+/**
+ * Turns the input for one command word into a {@link Command}.
+ */
+@FunctionalInterface
+public interface CommandParser {
+    /**
+     * Parses the input.
+     *
+     * @param input Trimmed user input, starting with the command word.
+     * @return The parsed command.
+     * @throws MrDuckyException If the arguments are missing or invalid.
+     */
+    Command parse(String input) throws MrDuckyException;
+}
@@ -0,0 +1,101 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+
+/**
+ * Maps command words to their parsers.
+ *
+ * <p>Command words are kept in a trie with one branch per letter, so finding the parser
+ * for an input takes one step per letter of the command word, ignores case, and reads
+ * the word straight from the input without splitting or lowercasing it. New commands
+ * are added with {@link #register(String, CommandParser)}.
+ */
+public class CommandRegistry {
+    /** Response for input that does not start with a known command word. */
+    public static final String UNKNOWN_COMMAND_MESSAGE = "OOPS!!! I'm sorry, but I don't know what that means :-(";
+    private static final int ALPHABET_SIZE = 26;
+
+    private final Node root = new Node();
+
+    /**
+     * Returns a registry holding all the built-in commands.
+     *
+     * @return Registry of built-in commands.
+     */
+    public static CommandRegistry createDefault() {
+        CommandRegistry registry = new CommandRegistry();
+        registry.register("bye", ByeCommand::parse);
+        registry.register("help", HelpCommand::parse);
+        registry.register("list", ListCommand::parse);
+        registry.register("todo", AddCommand::parseTodo);
+        registry.register("deadline", AddCommand::parseDeadline);
+        registry.register("event", AddCommand::parseEvent);
+        registry.register("mark", MarkCommand::parseMark);
+        registry.register("unmark", MarkCommand::parseUnmark);
+        registry.register("delete", DeleteCommand::parse);
+        registry.register("find", FindCommand::parse);
+        registry.register("query", QueryCommand::parse);
+        registry.register("due", DueCommand::parse);
+        registry.register("on", OnCommand::parse);
+        registry.register("overlaps", OverlapsCommand::parse);
+        registry.register("stats", StatsCommand::parse);
+        registry.register("batch", input -> BatchCommand.parse(input, registry));
+        return registry;
+    }
+
+    /**
+     * Registers a parser for a command word, replacing any parser already registered for it.
+     *
+     * @param word Command word, made of the letters a to z.
+     * @param parser Parser for input starting with the word.
+     */
+    public void register(String word, CommandParser parser) {
+        if (word.isEmpty()) {
+            throw new IllegalArgumentException("Command word cannot be empty.");
+        }
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            int letter = word.charAt(i) - 'a';
+            if (letter < 0 || letter >= ALPHABET_SIZE) {
+                throw new IllegalArgumentException("Command words can only use the letters a to z: " + word);
+            }
+            if (node.children[letter] == null) {
+                node.children[letter] = new Node();
+            }
+            node = node.children[letter];
+        }
+        node.parser = parser;
+    }
+
+    /**
+     * Parses user input into a command.
+     *
+     * @param input Trimmed, non-empty user input.
+     * @return The parsed command.
+     * @throws MrDuckyException If the command word is unknown or the arguments are invalid.
+     */
+    public Command parse(String input) throws MrDuckyException {
+        Node node = root;
+        int end = 0;
+        while (end < input.length() && input.charAt(end) != ' ') {
+            int letter = Character.toLowerCase(input.charAt(end)) - 'a';
+            if (letter < 0 || letter >= ALPHABET_SIZE || node.children[letter] == null) {
+                throw new MrDuckyException(UNKNOWN_COMMAND_MESSAGE);
+            }
+            node = node.children[letter];
+            end++;
+        }
+        if (node.parser == null) {
+            throw new MrDuckyException(UNKNOWN_COMMAND_MESSAGE);
+        }
+        return node.parser.parse(input);
+    }
+
+    /**
+     * A trie node, holding the parser for the word that ends here, if any.
+     */
+    private static class Node {
+        private final Node[] children = new Node[ALPHABET_SIZE];
+        private CommandParser parser;
+    }
+}
@@ -0,0 +1,40 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.parser.Parser;
+import mrducky.storage.Storage;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Removes a task from the task list.
+ */
+public class DeleteCommand extends IndexCommand {
+    /**
+     * Creates a command that deletes the task at the given position.
+     *
+     * @param index Zero-based position of the task.
+     */
+    public DeleteCommand(int index) {
+        super(index);
+    }
+
+    /**
+     * Parses a delete command.
+     *
+     * @param input Trimmed user input.
+     * @return The delete command.
+     * @throws MrDuckyException If the index is missing or invalid.
+     */
+    public static DeleteCommand parse(String input) throws MrDuckyException {
+        return new DeleteCommand(Parser.parseIndex(input, "delete"));
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) throws MrDuckyException {
+        checkIndex(tasks);
+        Task task = tasks.deleteTask(index);
+        storage.saveDeleted(tasks.asList(), index);
+        return TaskFormatter.formatChange("Noted. I've removed this task:", task, tasks.getSize());
+    }
+}
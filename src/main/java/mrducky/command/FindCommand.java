@@ -0,0 +1,41 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.TaskList;
+
+/**
+ * Finds tasks whose description contains a keyword.
+ */
+public class FindCommand implements Command {
+    private final String keyword;
+
+    /**
+     * Creates a command that searches for the given keyword.
+     *
+     * @param keyword Keyword to search for, ignoring case.
+     */
+    public FindCommand(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Parses a find command.
+     *
+     * @param input Trimmed user input.
+     * @return The find command.
+     * @throws MrDuckyException If the keyword is missing.
+     */
+    public static FindCommand parse(String input) throws MrDuckyException {
+        String keyword = input.substring("find".length()).trim();
+        if (keyword.isEmpty()) {
+            throw new MrDuckyException("OOPS!!! The keyword for find cannot be empty.");
+        }
+        return new FindCommand(keyword);
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) {
+        return TaskFormatter.formatMatches("Here are the matching tasks in your list:", tasks.find(keyword));
+    }
+}
@@ -0,0 +1,47 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.TaskList;
+
+/**
+ * Lists the available commands.
+ */
+public class HelpCommand implements Command {
+    private static final HelpCommand INSTANCE = new HelpCommand();
+    private static final String HELP = "Here are the commands you can use:\n"
+            + "  list [page] [size]\n"
+            + "  todo <description>\n"
+            + "  deadline <description> /by d/MM/yyyy HHmm\n"
+            + "  event <description> /from d/MM/yyyy HHmm /to d/MM/yyyy HHmm\n"
+            + "  mark <index>\n"
+            + "  unmark <index>\n"
+            + "  delete <index>\n"
+            + "  find <keyword>\n"
+            + "  query [type:T|D|E] [done:true|false] [text:<text>] [due|from|to<date] [sort:<field>] [limit:<n>]\n"
+            + "  due <from d/MM/yyyy> <to d/MM/yyyy>\n"
+            + "  on <d/MM/yyyy>\n"
+            + "  overlaps <from d/MM/yyyy> <to d/MM/yyyy>\n"
+            + "  batch <file>\n"
+            + "  stats\n"
+            + "  bye";
+
+    /**
+     * Parses the help command, which takes no arguments.
+     *
+     * @param input Trimmed user input.
+     * @return The help command.
+     * @throws MrDuckyException If arguments were given.
+     */
+    public static HelpCommand parse(String input) throws MrDuckyException {
+        if (input.indexOf(' ') >= 0) {
+            throw new MrDuckyException(CommandRegistry.UNKNOWN_COMMAND_MESSAGE);
+        }
+        return INSTANCE;
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) {
+        return HELP;
+    }
+}
@@ -0,0 +1,37 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.TaskList;
+
+/**
+ * Base class for commands that act on the task at a list position.
+ */
+abstract class IndexCommand implements Command {
+    protected final int index;
+
+    /**
+     * Creates a command for the task at the given position.
+     *
+     * @param index Zero-based position of the task.
+     */
+    IndexCommand(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Checks that the position is still in the list, which may have shrunk since parsing.
+     *
+     * @param tasks The task list.
+     * @throws MrDuckyException If the position is past the end of the list.
+     */
+    void checkIndex(TaskList tasks) throws MrDuckyException {
+        if (index >= tasks.getSize()) {
+            throw new MrDuckyException("OOPS!!! The task index provided is out of bounds.");
+        }
+    }
+
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
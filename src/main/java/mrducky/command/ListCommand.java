@@ -0,0 +1,83 @@
+package mrducky.command;
+
+import java.util.List;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.parser.Parser;
+import mrducky.storage.Storage;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Shows one page of the task list.
+ */
+public class ListCommand implements Command {
+    /** Number of tasks on a page when the list command is not given a page size. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final int page;
+    private final int pageSize;
+    private final boolean isWholeList;
+
+    private ListCommand(int page, int pageSize, boolean isWholeList) {
+        this.page = page;
+        this.pageSize = pageSize;
+        this.isWholeList = isWholeList;
+    }
+
+    /**
+     * Parses the list command, with its optional page number and page size.
+     *
+     * @param input Trimmed user input.
+     * @return The list command.
+     * @throws MrDuckyException If the page number or size is invalid.
+     */
+    public static ListCommand parse(String input) throws MrDuckyException {
+        int[] pageArgs = Parser.parsePage(input, DEFAULT_PAGE_SIZE);
+        return new ListCommand(pageArgs[0], pageArgs[1], input.indexOf(' ') < 0);
+    }
+
+    /**
+     * Returns whether no page was asked for. Front ends that can stream output may then
+     * show the whole list instead of the first page.
+     *
+     * @return True if the command was given no arguments.
+     */
+    public boolean isWholeList() {
+        return isWholeList;
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) throws MrDuckyException {
+        return formatPage(tasks, page, pageSize);
+    }
+
+    /**
+     * Formats one page of the task list. When the whole list fits on the page, the page
+     * looks the same as an unpaged list.
+     */
+    private static String formatPage(TaskList tasks, int page, int pageSize) throws MrDuckyException {
+        int total = tasks.getSize();
+        if (total == 0) {
+            return "Here are the tasks in your list:\n(no tasks yet)";
+        }
+        int pageCount = (int) ((total + (long) pageSize - 1) / pageSize);
+        if (page > pageCount) {
+            throw new MrDuckyException("OOPS!!! There " + (pageCount == 1 ? "is only 1 page" : "are only "
+                    + pageCount + " pages") + " of tasks.");
+        }
+        int from = (page - 1) * pageSize;
+        List<Task> pageTasks = tasks.getRange(from, (int) Math.min((long) from + pageSize, total));
+        if (pageCount == 1) {
+            return "Here are the tasks in your list:\n" + TaskFormatter.formatNumbered(pageTasks, 1);
+        }
+        String heading = "Here are tasks " + (from + 1) + "-" + (from + pageTasks.size()) + " of " + total
+                + " (page " + page + " of " + pageCount + "):\n";
+        String footer = "";
+        if (page < pageCount) {
+            footer = "\nType list " + (page + 1) + (pageSize == DEFAULT_PAGE_SIZE ? "" : " " + pageSize)
+                    + " for the next page.";
+        }
+        return heading + TaskFormatter.formatNumbered(pageTasks, from + 1) + footer;
+    }
+}
@@ -0,0 +1,58 @@
+package mrducky.command;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.parser.Parser;
+import mrducky.storage.Storage;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Marks a task as done or not done.
+ */
+public class MarkCommand extends IndexCommand {
+    private final boolean isDone;
+
+    /**
+     * Creates a command that marks the task at the given position.
+     *
+     * @param index Zero-based position of the task.
+     * @param isDone True to mark the task as done, false to mark it as not done.
+     */
+    public MarkCommand(int index, boolean isDone) {
+        super(index);
+        this.isDone = isDone;
+    }
+
+    /**
+     * Parses a mark command.
+     *
+     * @param input Trimmed user input.
+     * @return Command marking the task as done.
+     * @throws MrDuckyException If the index is missing or invalid.
+     */
+    public static MarkCommand parseMark(String input) throws MrDuckyException {
+        return new MarkCommand(Parser.parseIndex(input, "mark"), true);
+    }
+
+    /**
+     * Parses an unmark command.
+     *
+     * @param input Trimmed user input.
+     * @return Command marking the task as not done.
+     * @throws MrDuckyException If the index is missing or invalid.
+     */
+    public static MarkCommand parseUnmark(String input) throws MrDuckyException {
+        return new MarkCommand(Parser.parseIndex(input, "unmark"), false);
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) throws MrDuckyException {
+        checkIndex(tasks);
+        Task task = isDone ? tasks.markTask(index) : tasks.unmarkTask(index);
+        storage.saveUpdated(tasks.asList(), index);
+        if (isDone) {
+            return "Nice! I've marked this task as done:\n  " + task;
+        }
+        return "OK, I've marked this task as not done yet:\n  " + task;
+    }
+}
@@ -0,0 +1,38 @@
+package mrducky.command;
+
+import java.time.LocalDate;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.parser.Parser;
+import mrducky.storage.Storage;
+import mrducky.task.TaskList;
+
+/**
+ * Finds the deadlines and events on a date.
+ */
+public class OnCommand implements Command {
+    private final LocalDate date;
+    private final String heading;
+
+    private OnCommand(LocalDate date, String heading) {
+        this.date = date;
+        this.heading = heading;
+    }
+
+    /**
+     * Parses an on command.
+     *
+     * @param input Trimmed user input.
+     * @return The on command.
+     * @throws MrDuckyException If the date is missing or invalid.
+     */
+    public static OnCommand parse(String input) throws MrDuckyException {
+        String[] dates = Parser.parseDates(input, "on", 1);
+        return new OnCommand(Parser.parseDate(dates[0]), "Here are the tasks on " + dates[0] + ":");
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) {
+        return TaskFormatter.formatMatches(heading, tasks.findOn(date));
+    }
+}
@@ -0,0 +1,47 @@
+package mrducky.command;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.parser.Parser;
+import mrducky.storage.Storage;
+import mrducky.task.TaskList;
+
+/**
+ * Finds events that overlap a range of dates.
+ */
+public class OverlapsCommand implements Command {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final String heading;
+
+    private OverlapsCommand(LocalDate from, LocalDate to, String heading) {
+        this.from = from;
+        this.to = to;
+        this.heading = heading;
+    }
+
+    /**
+     * Parses an overlaps command.
+     *
+     * @param input Trimmed user input.
+     * @return The overlaps command.
+     * @throws MrDuckyException If the dates are missing, invalid or out of order.
+     */
+    public static OverlapsCommand parse(String input) throws MrDuckyException {
+        String[] dates = Parser.parseDates(input, "overlaps", 2);
+        LocalDate from = Parser.parseDate(dates[0]);
+        LocalDate to = Parser.parseDate(dates[1]);
+        if (to.isBefore(from)) {
+            throw new MrDuckyException("OOPS!!! The end date for overlaps cannot be before the start date.");
+        }
+        return new OverlapsCommand(from, to, "Here are the events from " + dates[0] + " to " + dates[1] + ":");
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) {
+        return TaskFormatter.formatMatches(heading,
+                tasks.findOverlapping(from.atStartOfDay(), to.atTime(LocalTime.MAX)));
+    }
+}
@@ -0,0 +1,218 @@
+package mrducky.command;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.parser.Parser;
+import mrducky.storage.Storage;
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+import mrducky.task.TaskQuery;
+import mrducky.task.ToDo;
+
+/**
+ * Finds tasks matching a query of space-separated terms, such as
+ * {@code query type:D done:false due<2026-12-01 text:"report" sort:due limit:50}.
+ *
+ * <p>The terms are:
+ * <ul>
+ * <li>{@code type:T}, {@code type:D} or {@code type:E}, or the full type names.</li>
+ * <li>{@code done:true} or {@code done:false}.</li>
+ * <li>{@code text:<text>}, matched anywhere in the description ignoring case. Text with spaces
+ *     goes in double quotes.</li>
+ * <li>{@code due}, {@code from} and {@code to} followed by {@code :}, {@code <}, {@code <=},
+ *     {@code >} or {@code >=} and a date, as yyyy-MM-dd or d/MM/yyyy. These compare the due time
+ *     of deadlines and the start and end times of events, and {@code :} means on that date.</li>
+ * <li>{@code sort:list}, {@code sort:description}, {@code sort:due}, {@code sort:from} or {@code sort:to}.</li>
+ * <li>{@code limit:<number>}.</li>
+ * </ul>
+ */
+public class QueryCommand implements Command {
+    private static final String USAGE =
+            "Example: query type:D done:false due<2026-12-01 text:\"report\" sort:due limit:50";
+
+    private final TaskQuery query;
+
+    private QueryCommand(TaskQuery query) {
+        this.query = query;
+    }
+
+    /**
+     * Parses a query command.
+     *
+     * @param input Trimmed user input.
+     * @return The query command.
+     * @throws MrDuckyException If there are no terms, or a term is unknown or invalid.
+     */
+    public static QueryCommand parse(String input) throws MrDuckyException {
+        List<String> terms = splitTerms(input.substring("query".length()));
+        if (terms.isEmpty()) {
+            throw new MrDuckyException("OOPS!!! The query cannot be empty. " + USAGE);
+        }
+        TaskQuery query = new TaskQuery();
+        for (String term : terms) {
+            addTerm(query, term);
+        }
+        return new QueryCommand(query);
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) {
+        return TaskFormatter.formatMatches("Here are the tasks matching your query:", query.run(tasks));
+    }
+
+    /**
+     * Splits the arguments at spaces outside double quotes, and removes the quotes.
+     */
+    private static List<String> splitTerms(String arguments) throws MrDuckyException {
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        boolean isQuoted = false;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+            } else if (c == ' ' && !isQuoted) {
+                if (term.length() > 0) {
+                    terms.add(term.toString());
+                    term.setLength(0);
+                }
+            } else {
+                term.append(c);
+            }
+        }
+        if (isQuoted) {
+            throw new MrDuckyException("OOPS!!! A quote in the query is not closed.");
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    private static void addTerm(TaskQuery query, String term) throws MrDuckyException {
+        int nameEnd = 0;
+        while (nameEnd < term.length() && Character.isLetter(term.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String name = term.substring(0, nameEnd).toLowerCase();
+        if (name.equals("due") || name.equals("from") || name.equals("to")) {
+            int operatorEnd = nameEnd;
+            while (operatorEnd < term.length() && "<>=:".indexOf(term.charAt(operatorEnd)) >= 0) {
+                operatorEnd++;
+            }
+            addTimeTerm(query, TaskQuery.TimeField.valueOf(name.toUpperCase()), term.substring(nameEnd, operatorEnd),
+                    term.substring(operatorEnd));
+            return;
+        }
+        if (nameEnd == term.length() || term.charAt(nameEnd) != ':' || nameEnd + 1 == term.length()) {
+            throw new MrDuckyException("OOPS!!! I don't understand the query term " + term + ". " + USAGE);
+        }
+        String value = term.substring(nameEnd + 1);
+        switch (name) {
+        case "type":
+            query.ofType(parseType(value));
+            break;
+        case "done":
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new MrDuckyException("OOPS!!! done must be true or false, not " + value + ".");
+            }
+            query.withDone(Boolean.parseBoolean(value));
+            break;
+        case "text":
+            query.containing(value);
+            break;
+        case "sort":
+            query.sortedBy(parseOrder(value));
+            break;
+        case "limit":
+            query.limitedTo(parseLimit(value));
+            break;
+        default:
+            throw new MrDuckyException("OOPS!!! I don't know the query term " + name
+                    + ". Use type, done, text, due, from, to, sort or limit.");
+        }
+    }
+
+    private static void addTimeTerm(TaskQuery query, TaskQuery.TimeField field, String operator, String value)
+            throws MrDuckyException {
+        if (value.isEmpty()) {
+            throw new MrDuckyException("OOPS!!! " + field.toString().toLowerCase() + " needs a date to compare with. "
+                    + USAGE);
+        }
+        LocalDate date = parseDate(value);
+        switch (operator) {
+        case ":":
+            query.atOrAfter(field, date.atStartOfDay()).atOrBefore(field, date.atTime(LocalTime.MAX));
+            break;
+        case "<":
+            query.atOrBefore(field, date.atStartOfDay().minusNanos(1));
+            break;
+        case "<=":
+            query.atOrBefore(field, date.atTime(LocalTime.MAX));
+            break;
+        case ">":
+            query.atOrAfter(field, date.plusDays(1).atStartOfDay());
+            break;
+        case ">=":
+            query.atOrAfter(field, date.atStartOfDay());
+            break;
+        default:
+            throw new MrDuckyException("OOPS!!! Compare dates with :, <, <=, > or >=, not " + operator + ".");
+        }
+    }
+
+    private static LocalDate parseDate(String value) throws MrDuckyException {
+        if (value.indexOf('-') < 0) {
+            return Parser.parseDate(value);
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new MrDuckyException("OOPS!!! Please use yyyy-MM-dd or d/MM/yyyy for dates in a query. "
+                    + "Example: 2026-12-01");
+        }
+    }
+
+    private static Class<? extends Task> parseType(String value) throws MrDuckyException {
+        switch (value.toLowerCase()) {
+        case "t":
+        case "todo":
+            return ToDo.class;
+        case "d":
+        case "deadline":
+            return Deadline.class;
+        case "e":
+        case "event":
+            return Event.class;
+        default:
+            throw new MrDuckyException("OOPS!!! type must be T, D or E, not " + value + ".");
+        }
+    }
+
+    private static TaskQuery.Order parseOrder(String value) throws MrDuckyException {
+        try {
+            return TaskQuery.Order.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new MrDuckyException("OOPS!!! sort must be list, description, due, from or to, not " + value + ".");
+        }
+    }
+
+    private static int parseLimit(String value) throws MrDuckyException {
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new MrDuckyException("OOPS!!! limit must be a positive number, not " + value + ".");
+    }
+}
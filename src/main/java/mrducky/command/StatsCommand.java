@@ -0,0 +1,95 @@
+package mrducky.command;
+
+import java.util.Map;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.metrics.Histogram;
+import mrducky.metrics.Metrics;
+import mrducky.storage.Storage;
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Shows the task counts and the process-wide {@link Metrics}: how long each command took,
+ * how long loading and saving took, and how many tasks searches checked.
+ */
+public class StatsCommand implements Command {
+    private static final StatsCommand INSTANCE = new StatsCommand();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Parses the stats command, which takes no arguments.
+     *
+     * @param input Trimmed user input.
+     * @return The stats command.
+     * @throws MrDuckyException If arguments were given.
+     */
+    public static StatsCommand parse(String input) throws MrDuckyException {
+        if (input.indexOf(' ') >= 0) {
+            throw new MrDuckyException(CommandRegistry.UNKNOWN_COMMAND_MESSAGE);
+        }
+        return INSTANCE;
+    }
+
+    @Override
+    public String execute(TaskList tasks, Storage storage) {
+        Metrics metrics = Metrics.getDefault();
+        StringBuilder builder = new StringBuilder("Here are the stats:\n");
+        appendTaskCounts(builder, tasks);
+
+        builder.append("Commands (p50 / p99 / max):");
+        Map<String, Histogram> latencies = metrics.getCommandLatencies();
+        if (latencies.isEmpty()) {
+            builder.append(" none yet");
+        }
+        latencies.forEach((name, histogram) -> {
+            builder.append("\n  ").append(name).append(": ").append(histogram.getCount()).append(" runs, ");
+            appendMillis(builder, histogram);
+        });
+
+        Histogram loads = metrics.getLoadLatency();
+        builder.append(String.format("\nLoads: %d, max %.2f ms", loads.getCount(), loads.getMax() / NANOS_PER_MILLI));
+
+        Histogram saves = metrics.getSaveLatency();
+        builder.append("\nSaves: ").append(saves.getCount()).append(" writes, ")
+                .append(metrics.getSavedBytes()).append(" bytes, ");
+        appendMillis(builder, saves);
+
+        Histogram scans = metrics.getFindScans();
+        builder.append("\nFinds: ").append(scans.getCount()).append(" searches, checked ")
+                .append(scans.getValueAtPercentile(50)).append(" / ")
+                .append(scans.getValueAtPercentile(99)).append(" / ")
+                .append(scans.getMax()).append(" tasks");
+        return builder.toString();
+    }
+
+    private static void appendTaskCounts(StringBuilder builder, TaskList tasks) {
+        int todos = 0;
+        int deadlines = 0;
+        int events = 0;
+        int done = 0;
+        for (Task task : tasks.snapshot()) {
+            if (task instanceof Deadline) {
+                deadlines++;
+            } else if (task instanceof Event) {
+                events++;
+            } else {
+                todos++;
+            }
+            if (task.isDone()) {
+                done++;
+            }
+        }
+        builder.append(String.format("Tasks: %d todos, %d deadlines, %d events, %d done\n",
+                todos, deadlines, events, done));
+    }
+
+    private static void appendMillis(StringBuilder builder, Histogram histogram) {
+        builder.append(String.format("%.2f / %.2f / %.2f ms",
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getMax() / NANOS_PER_MILLI));
+    }
+}
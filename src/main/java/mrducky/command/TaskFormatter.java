@@ -0,0 +1,57 @@
+package mrducky.command;
+
+import java.util.List;
+
+import mrducky.task.Task;
+
+/**
+ * Formats tasks for command responses.
+ */
+public final class TaskFormatter {
+    private TaskFormatter() {
+    }
+
+    /**
+     * Formats tasks one per line, numbered from {@code firstNumber}.
+     *
+     * @param tasks Tasks to format.
+     * @param firstNumber Number shown for the first task.
+     * @return Numbered lines, without a trailing line break.
+     */
+    public static String formatNumbered(List<Task> tasks, int firstNumber) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < tasks.size(); i++) {
+            builder.append(firstNumber + i).append(".").append(tasks.get(i));
+            if (i < tasks.size() - 1) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats the results of a search under the given heading.
+     *
+     * @param heading Heading shown above the matches.
+     * @param foundTasks Matching tasks.
+     * @return The heading and numbered matches, or a message saying nothing matched.
+     */
+    public static String formatMatches(String heading, List<Task> foundTasks) {
+        if (foundTasks.isEmpty()) {
+            return "No matching tasks found.";
+        }
+        return heading + "\n" + formatNumbered(foundTasks, 1);
+    }
+
+    /**
+     * Formats the message shown after a task is added or removed.
+     *
+     * @param action What happened, such as "Got it. I've added this task:".
+     * @param task The task.
+     * @param totalTasks Number of tasks now in the list.
+     * @return The message.
+     */
+    static String formatChange(String action, Task task, int totalTasks) {
+        return action + "\n  " + task + "\nNow you have " + totalTasks + " tasks in the list.";
+    }
+}
@@ -0,0 +1,166 @@
+package mrducky.date;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses and formats the dates and times MrDucky reads and shows.
+ *
+ * <p>Formatters are built once and shared, since they are immutable and thread-safe.
+ * The common input shapes, {@code d/MM/yyyy HHmm} and ISO timestamps, are parsed by hand
+ * without going through a formatter. Anything the fast paths do not fully handle, including
+ * every invalid input, is passed to the formatter, so results and errors are the same as
+ * parsing with the formatter alone.
+ */
+public final class DateTimes {
+    /** Format of dates and times typed by the user, such as 2/12/2019 1800. */
+    public static final DateTimeFormatter INPUT_DATE_TIME = DateTimeFormatter.ofPattern("d/MM/yyyy HHmm");
+    /** Format of dates typed by the user, such as 2/12/2019. */
+    public static final DateTimeFormatter INPUT_DATE = DateTimeFormatter.ofPattern("d/MM/yyyy");
+    /** Format of dates and times shown to the user, such as Dec 2 2019, 6:00 PM. */
+    public static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
+
+    private DateTimes() {
+    }
+
+    /**
+     * Parses a date and time typed as d/MM/yyyy HHmm.
+     *
+     * @param text Date and time string.
+     * @return The parsed date and time.
+     * @throws java.time.format.DateTimeParseException If the text is not a valid date and time.
+     */
+    public static LocalDateTime parseInputDateTime(CharSequence text) {
+        int length = text.length();
+        // Either 1/MM/yyyy HHmm or 12/MM/yyyy HHmm
+        int dayDigits = length - 13;
+        if ((dayDigits == 1 || dayDigits == 2) && hasDateShape(text, dayDigits)
+                && text.charAt(dayDigits + 8) == ' ') {
+            int day = digits(text, 0, dayDigits);
+            int month = digits(text, dayDigits + 1, 2);
+            int year = digits(text, dayDigits + 4, 4);
+            int hour = digits(text, dayDigits + 9, 2);
+            int minute = digits(text, dayDigits + 11, 2);
+            if (isValidDate(year, month, day) && hour >= 0 && hour < 24 && minute >= 0 && minute < 60) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return LocalDateTime.parse(text, INPUT_DATE_TIME);
+    }
+
+    /**
+     * Parses a date typed as d/MM/yyyy.
+     *
+     * @param text Date string.
+     * @return The parsed date.
+     * @throws java.time.format.DateTimeParseException If the text is not a valid date.
+     */
+    public static LocalDate parseInputDate(CharSequence text) {
+        int dayDigits = text.length() - 8;
+        if ((dayDigits == 1 || dayDigits == 2) && hasDateShape(text, dayDigits)) {
+            int day = digits(text, 0, dayDigits);
+            int month = digits(text, dayDigits + 1, 2);
+            int year = digits(text, dayDigits + 4, 4);
+            if (isValidDate(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(text, INPUT_DATE);
+    }
+
+    /**
+     * Parses an ISO local date-time such as {@code 2019-12-02T18:00} or {@code 2019-12-02T18:00:30}.
+     * Other ISO forms, such as fractional seconds, fall back to {@link LocalDateTime#parse}.
+     *
+     * @param text Text holding the timestamp.
+     * @param start Index of the first character.
+     * @param end Index just past the last character.
+     * @return Parsed date-time.
+     * @throws DateTimeException If the timestamp is not a valid ISO local date-time.
+     */
+    public static LocalDateTime parseIso(CharSequence text, int start, int end) {
+        int length = end - start;
+        if ((length == 16 || length == 19)
+                && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-'
+                && text.charAt(start + 10) == 'T' && text.charAt(start + 13) == ':'
+                && (length == 16 || text.charAt(start + 16) == ':')) {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            int hour = digits(text, start + 11, 2);
+            int minute = digits(text, start + 14, 2);
+            int second = length == 19 ? digits(text, start + 17, 2) : 0;
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(text.subSequence(start, end));
+    }
+
+    /**
+     * Returns whether the text is an ISO local date-time such as {@code 2019-12-02T18:00} or
+     * {@code 2019-12-02T18:00:30} with valid fields, which {@link #parseIso} reads without error.
+     * Creates no objects. Other ISO forms give false even if they would parse.
+     *
+     * @param text Text holding the timestamp.
+     * @param start Index of the first character.
+     * @param end Index just past the last character.
+     * @return True if the timestamp is certain to parse.
+     */
+    public static boolean isIso(CharSequence text, int start, int end) {
+        int length = end - start;
+        if ((length != 16 && length != 19)
+                || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-'
+                || text.charAt(start + 10) != 'T' || text.charAt(start + 13) != ':'
+                || (length == 19 && text.charAt(start + 16) != ':')) {
+            return false;
+        }
+        int hour = digits(text, start + 11, 2);
+        int minute = digits(text, start + 14, 2);
+        int second = length == 19 ? digits(text, start + 17, 2) : 0;
+        return isValidDate(digits(text, start, 4), digits(text, start + 5, 2), digits(text, start + 8, 2))
+                && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60;
+    }
+
+    /**
+     * Formats a date and time for display.
+     *
+     * @param dateTime Date and time to show.
+     * @return Text such as Dec 2 2019, 6:00 PM.
+     */
+    public static String formatDisplay(LocalDateTime dateTime) {
+        return DISPLAY.format(dateTime);
+    }
+
+    private static boolean hasDateShape(CharSequence text, int dayDigits) {
+        return text.charAt(dayDigits) == '/' && text.charAt(dayDigits + 3) == '/';
+    }
+
+    /**
+     * Returns whether the fields form a real date. Dates such as 31/02 are left to the
+     * formatter, which adjusts them to the end of the month.
+     */
+    private static boolean isValidDate(int year, int month, int day) {
+        return year >= 1 && month >= 1 && month <= 12 && day >= 1
+                && day <= Month.of(month).length(Year.isLeap(year));
+    }
+
+    /**
+     * Returns the value of {@code count} decimal digits, or -1 if any of them is not a digit.
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package mrducky.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering one run of a command, so slow commands show up in a recording
+ * next to the garbage collections and lock waits they ran into.
+ */
+@Name("mrducky.Command")
+@Label("Command")
+@Category("MrDucky")
+@Description("A MrDucky command from start to finish")
+public class CommandEvent extends Event {
+    @Label("Command")
+    private String command;
+
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Creates an event for a run of the named command. Call {@link #begin()} when it starts.
+     *
+     * @param command Name of the command.
+     */
+    public CommandEvent(String command) {
+        this.command = command;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
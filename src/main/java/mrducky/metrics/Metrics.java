@@ -0,0 +1,188 @@
+package mrducky.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide measurements of where MrDucky spends its time: how long each command runs,
+ * how long loading and saving take, how many bytes are written, and how many tasks each
+ * search checks. Commands and writes are also sent to Flight Recorder as {@link CommandEvent}s
+ * and {@code mrducky.Save} events, when a recording is running.
+ *
+ * <p>Everything is recorded into {@link Histogram}s, so recording is cheap enough to stay on
+ * in production. The numbers can be read with the {@code stats} command, or over JMX once
+ * {@link #registerMBean()} has been called.
+ */
+public class Metrics implements MetricsMXBean {
+    /** Name the metrics are registered under in the platform MBean server. */
+    public static final String OBJECT_NAME = "mrducky:type=Metrics";
+    private static final Metrics DEFAULT = new Metrics();
+    private static final Logger logger = Logger.getLogger(Metrics.class.getName());
+
+    private final ConcurrentMap<String, Histogram> commandNanos = new ConcurrentHashMap<>();
+    private final Histogram loadNanos = new Histogram();
+    private final Histogram saveNanos = new Histogram();
+    private final LongAdder savedBytes = new LongAdder();
+    private final Histogram findScans = new Histogram();
+
+    /**
+     * Returns the metrics shared by the whole process.
+     *
+     * @return Process-wide metrics.
+     */
+    public static Metrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers the process-wide metrics with the platform MBean server under {@value #OBJECT_NAME},
+     * unless they are registered already. Failures are logged rather than thrown, since the
+     * application runs fine without them.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(DEFAULT, name);
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not register metrics with JMX", e);
+        }
+    }
+
+    /**
+     * Records one run of a command.
+     *
+     * @param name Name of the command.
+     * @param nanos Time the command took, in nanoseconds.
+     */
+    public void recordCommand(String name, long nanos) {
+        commandNanos.computeIfAbsent(name, key -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Records one load of a task list.
+     *
+     * @param nanos Time the load took, in nanoseconds.
+     */
+    public void recordLoad(long nanos) {
+        loadNanos.record(nanos);
+    }
+
+    /**
+     * Records one finished write to storage.
+     *
+     * @param byteCount Number of bytes written.
+     * @param nanos Time the write took, in nanoseconds.
+     */
+    public void recordSave(long byteCount, long nanos) {
+        saveNanos.record(nanos);
+        savedBytes.add(byteCount);
+        SaveEvent event = new SaveEvent();
+        if (event.isEnabled()) {
+            event.bytes = byteCount;
+            event.writeTime = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records one keyword search.
+     *
+     * @param scanned Number of tasks the search checked.
+     */
+    public void recordFindScan(int scanned) {
+        findScans.record(scanned);
+    }
+
+    /**
+     * Returns the running times of the commands, in nanoseconds, by command name in alphabetical order.
+     *
+     * @return Running times by command name.
+     */
+    public Map<String, Histogram> getCommandLatencies() {
+        return Collections.unmodifiableMap(new TreeMap<>(commandNanos));
+    }
+
+    public Histogram getLoadLatency() {
+        return loadNanos;
+    }
+
+    public Histogram getSaveLatency() {
+        return saveNanos;
+    }
+
+    public Histogram getFindScans() {
+        return findScans;
+    }
+
+    @Override
+    public Map<String, Long> getCommandCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        commandNanos.forEach((name, histogram) -> counts.put(name, histogram.getCount()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getCommandP99Micros() {
+        Map<String, Long> times = new TreeMap<>();
+        commandNanos.forEach((name, histogram) -> times.put(name, toMicros(histogram.getValueAtPercentile(99))));
+        return times;
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loadNanos.getCount();
+    }
+
+    @Override
+    public long getLoadMaxMicros() {
+        return toMicros(loadNanos.getMax());
+    }
+
+    @Override
+    public long getSaveCount() {
+        return saveNanos.getCount();
+    }
+
+    @Override
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    @Override
+    public long getSaveP99Micros() {
+        return toMicros(saveNanos.getValueAtPercentile(99));
+    }
+
+    @Override
+    public long getSaveMaxMicros() {
+        return toMicros(saveNanos.getMax());
+    }
+
+    @Override
+    public long getFindCount() {
+        return findScans.getCount();
+    }
+
+    @Override
+    public long getFindScanP99() {
+        return findScans.getValueAtPercentile(99);
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
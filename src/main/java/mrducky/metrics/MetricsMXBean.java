@@ -0,0 +1,39 @@
+package mrducky.metrics;
+
+import java.util.Map;
+
+/**
+ * Management view of the process-wide {@link Metrics}, for JMX consoles such as JConsole.
+ * Times are in microseconds.
+ */
+public interface MetricsMXBean {
+    /**
+     * Returns how many times each command ran, by command name.
+     *
+     * @return Run counts by command name.
+     */
+    Map<String, Long> getCommandCounts();
+
+    /**
+     * Returns the 99th percentile running time of each command, by command name.
+     *
+     * @return Running times in microseconds by command name.
+     */
+    Map<String, Long> getCommandP99Micros();
+
+    long getLoadCount();
+
+    long getLoadMaxMicros();
+
+    long getSaveCount();
+
+    long getSavedBytes();
+
+    long getSaveP99Micros();
+
+    long getSaveMaxMicros();
+
+    long getFindCount();
+
+    long getFindScanP99();
+}
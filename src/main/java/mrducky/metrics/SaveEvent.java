@@ -0,0 +1,27 @@
+package mrducky.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one finished write to storage. The write is timed by the storage
+ * itself, so the time is a field rather than the event's duration.
+ */
+@Name("mrducky.Save")
+@Label("Save")
+@Category("MrDucky")
+@Description("A write of tasks to storage")
+class SaveEvent extends Event {
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Write Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long writeTime;
+}
@@ -1,5 +1,10 @@
 package mrducky.parser;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import mrducky.date.DateTimes;
 import mrducky.exception.MrDuckyException;
 
 /**
@@ -115,5 +120,86 @@ public class Parser {
         }
         return new String[]{parts[0].trim(), timeParts[0].trim(), timeParts[1].trim()};
     }
-}
 
+    /**
+     * Parses the date arguments for commands like due, on and overlaps.
+     *
+     * @param input User input string.
+     * @param command The command word (for error messages).
+     * @param count The number of dates the command takes.
+     * @return The date strings, in the order given.
+     * @throws MrDuckyException If the number of dates is wrong.
+     */
+    public static String[] parseDates(String input, String command, int count) throws MrDuckyException {
+        String[] parts = input.trim().split("\\s+");
+        if (parts.length - 1 != count) {
+            String expected = count == 1 ? "one date" : count + " dates";
+            throw new MrDuckyException("OOPS!!! " + command + " needs " + expected + " in d/MM/yyyy format.");
+        }
+        String[] dates = new String[count];
+        System.arraycopy(parts, 1, dates, 0, count);
+        return dates;
+    }
+
+    /**
+     * Parses the optional page number and page size for the list command.
+     *
+     * @param input User input string.
+     * @param defaultSize The page size to use when none is given.
+     * @return An array with the one-based page number at index 0 and the page size at index 1.
+     * @throws MrDuckyException If the page number or size is not a positive number.
+     */
+    public static int[] parsePage(String input, int defaultSize) throws MrDuckyException {
+        String[] parts = input.trim().split("\\s+");
+        if (parts.length > 3) {
+            throw new MrDuckyException("OOPS!!! list takes at most a page number and a page size.");
+        }
+        int page = parts.length > 1 ? parsePositive(parts[1], "page number") : 1;
+        int size = parts.length > 2 ? parsePositive(parts[2], "page size") : defaultSize;
+        return new int[]{page, size};
+    }
+
+    private static int parsePositive(String text, String name) throws MrDuckyException {
+        try {
+            int value = Integer.parseInt(text);
+            if (value <= 0) {
+                throw new MrDuckyException("OOPS!!! The " + name + " for list must be a positive number.");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new MrDuckyException("OOPS!!! The " + name + " for list must be a valid number.");
+        }
+    }
+
+    /**
+     * Parses a date and time given as d/MM/yyyy HHmm.
+     *
+     * @param text Date and time string.
+     * @param taskType The kind of task the time is for, such as "deadlines" (for error messages).
+     * @return The parsed date and time.
+     * @throws MrDuckyException If the text is not in the expected format.
+     */
+    public static LocalDateTime parseDateTime(String text, String taskType) throws MrDuckyException {
+        try {
+            return DateTimes.parseInputDateTime(text.trim());
+        } catch (DateTimeParseException e) {
+            throw new MrDuckyException("OOPS!!! Please use d/MM/yyyy HHmm for " + taskType + ". "
+                    + "Example: 2/12/2019 1800");
+        }
+    }
+
+    /**
+     * Parses a date given as d/MM/yyyy.
+     *
+     * @param text Date string.
+     * @return The parsed date.
+     * @throws MrDuckyException If the text is not in the expected format.
+     */
+    public static LocalDate parseDate(String text) throws MrDuckyException {
+        try {
+            return DateTimes.parseInputDate(text);
+        } catch (DateTimeParseException e) {
+            throw new MrDuckyException("OOPS!!! Please use d/MM/yyyy for dates. Example: 2/12/2019");
+        }
+    }
+}
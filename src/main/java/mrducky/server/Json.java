@@ -0,0 +1,109 @@
+package mrducky.server;
+
+import java.util.List;
+
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+
+/**
+ * Writes the JSON the server sends back. The server only ever writes JSON, so a few
+ * string builders cover it without a JSON library.
+ */
+final class Json {
+    private Json() {
+    }
+
+    /**
+     * Returns a JSON object with a single string field.
+     *
+     * @param key Field name.
+     * @param value Field value.
+     * @return JSON object.
+     */
+    static String field(String key, String value) {
+        return "{" + quote(key) + ":" + quote(value) + "}";
+    }
+
+    /**
+     * Returns a JSON array of the given tasks.
+     *
+     * @param tasks Tasks to write.
+     * @param firstNumber List number of the first task, or 0 to leave numbers out.
+     * @return JSON array.
+     */
+    static String tasks(List<Task> tasks, int firstNumber) {
+        StringBuilder json = new StringBuilder(tasks.size() * 96 + 2);
+        json.append('[');
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendTask(json, tasks.get(i), firstNumber == 0 ? 0 : firstNumber + i);
+        }
+        return json.append(']').toString();
+    }
+
+    private static void appendTask(StringBuilder json, Task task, int number) {
+        json.append('{');
+        if (number > 0) {
+            json.append("\"number\":").append(number).append(',');
+        }
+        json.append("\"id\":").append(task.getId());
+        if (task instanceof Deadline) {
+            json.append(",\"type\":\"deadline\"");
+        } else if (task instanceof Event) {
+            json.append(",\"type\":\"event\"");
+        } else {
+            json.append(",\"type\":\"todo\"");
+        }
+        json.append(",\"description\":").append(quote(task.getDescription()));
+        json.append(",\"done\":").append(task.isDone());
+        if (task instanceof Deadline) {
+            json.append(",\"due\":\"").append(((Deadline) task).getDueDate()).append('"');
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            json.append(",\"from\":\"").append(event.getFromTime()).append('"');
+            json.append(",\"to\":\"").append(event.getToTime()).append('"');
+        }
+        json.append('}');
+    }
+
+    /**
+     * Returns the text as a JSON string literal.
+     *
+     * @param text Text to quote.
+     * @return Quoted and escaped text.
+     */
+    static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2);
+        quoted.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '"':
+                quoted.append("\\\"");
+                break;
+            case '\\':
+                quoted.append("\\\\");
+                break;
+            case '\n':
+                quoted.append("\\n");
+                break;
+            case '\r':
+                quoted.append("\\r");
+                break;
+            case '\t':
+                quoted.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    quoted.append(String.format("\\u%04x", (int) c));
+                } else {
+                    quoted.append(c);
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
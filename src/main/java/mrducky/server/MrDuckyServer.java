@@ -0,0 +1,279 @@
+package mrducky.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import mrducky.MrDuckyApp;
+import mrducky.command.AddCommand;
+import mrducky.command.Command;
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Serves MrDucky over HTTP, with a separate task list and data file for each user.
+ *
+ * <p>Every request names its user in the path, and answers are JSON:
+ * <ul>
+ * <li>{@code POST /users/<user>/command} runs the command in the body, as typed in the chat,
+ *     and returns {@code {"response": ...}}.</li>
+ * <li>{@code GET /users/<user>/tasks?offset=0&limit=100} returns a page of the task list,
+ *     and {@code GET /users/<user>/tasks?keyword=book} the tasks matching a keyword.</li>
+ * <li>{@code POST /users/<user>/tasks} adds the todo, deadline or event in the body.</li>
+ * <li>{@code POST /users/<user>/tasks/<number>/mark} and {@code .../unmark} mark a task.</li>
+ * </ul>
+ * Errors come back as {@code {"error": ...}} with a 4xx status. {@code GET /stats} returns
+ * the workspace cache counters.
+ *
+ * <p>Requests run on a fixed pool of threads, so requests for different users run in
+ * parallel. Each user's {@link MrDuckyApp} already runs their changes one at a time.
+ * Users' task lists are kept in memory by a {@link WorkspaceManager}, which lets idle ones go.
+ */
+public class MrDuckyServer {
+    /** System property setting the number of request threads. */
+    public static final String THREADS_PROPERTY = "mrducky.server.threads";
+    private static final int DEFAULT_THREADS = 32;
+    // Connections waiting to be accepted, so bursts of clients are queued rather than refused
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final Pattern USER_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final Logger logger = Logger.getLogger(MrDuckyServer.class.getName());
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final WorkspaceManager workspaces;
+
+    /**
+     * Creates a server that keeps each user's tasks in a file named after them in the given directory.
+     * The server does not accept requests until it is started.
+     *
+     * @param address Address to listen on. Port 0 picks a free port.
+     * @param dataDirectory Directory holding the users' data files.
+     * @param threads Number of threads handling requests.
+     * @throws IOException If the address cannot be bound.
+     */
+    public MrDuckyServer(InetSocketAddress address, Path dataDirectory, int threads) throws IOException {
+        this(address, WorkspaceManager.forDirectory(dataDirectory), threads);
+    }
+
+    /**
+     * Creates a server that gets each user's tasks from the given workspace manager.
+     * The server does not accept requests until it is started.
+     *
+     * @param address Address to listen on. Port 0 picks a free port.
+     * @param workspaces Workspaces of the users.
+     * @param threads Number of threads handling requests.
+     * @throws IOException If the address cannot be bound.
+     */
+    public MrDuckyServer(InetSocketAddress address, WorkspaceManager workspaces, int threads) throws IOException {
+        this.workspaces = workspaces;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/users/", this::handle);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    /**
+     * Creates a server on the given port of every local address, with the number of threads
+     * set by the {@value #THREADS_PROPERTY} system property.
+     *
+     * @param port Port to listen on.
+     * @param dataDirectory Directory holding the users' data files.
+     * @return Server, not yet started.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static MrDuckyServer create(int port, Path dataDirectory) throws IOException {
+        return new MrDuckyServer(new InetSocketAddress(port), dataDirectory,
+                Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+        logger.info(() -> "Serving on port " + getPort());
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for running ones, then writes out every user's
+     * buffered changes.
+     */
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workspaces.closeAll();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            // "/users/<user>/<resource>/..." splits into "", "users", user, resource, ...
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            if (parts.length < 4) {
+                sendError(exchange, 404, "OOPS!!! There is nothing here.");
+                return;
+            }
+            if (!USER_PATTERN.matcher(parts[2]).matches()) {
+                sendError(exchange, 400, "OOPS!!! User names may only have letters, digits, - and _.");
+                return;
+            }
+            try (WorkspaceManager.Workspace workspace = workspaces.acquire(parts[2])) {
+                handleUser(exchange, parts, workspace.getApp());
+            }
+        } catch (MrDuckyException e) {
+            sendError(exchange, e instanceof MethodNotAllowedException ? 405 : 400, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Request failed: " + exchange.getRequestURI(), e);
+            sendError(exchange, 500, "OOPS!!! Something went wrong while running that command.");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleUser(HttpExchange exchange, String[] parts, MrDuckyApp app)
+            throws IOException, MrDuckyException {
+        String method = exchange.getRequestMethod();
+        if (parts[3].equals("command") && parts.length == 4) {
+            requireMethod(method, "POST");
+            send(exchange, 200, Json.field("response", app.getResponse(readBody(exchange))));
+        } else if (parts[3].equals("tasks") && parts.length == 4 && method.equals("GET")) {
+            sendTasks(exchange, app.getTaskList());
+        } else if (parts[3].equals("tasks") && parts.length == 4) {
+            requireMethod(method, "POST");
+            Command command = app.parse(readBody(exchange));
+            if (!(command instanceof AddCommand)) {
+                throw new MrDuckyException("OOPS!!! Only todo, deadline and event commands add tasks.");
+            }
+            send(exchange, 201, Json.field("response", app.execute(command)));
+        } else if (parts[3].equals("tasks") && parts.length == 6
+                && (parts[5].equals("mark") || parts[5].equals("unmark"))) {
+            requireMethod(method, "POST");
+            send(exchange, 200, Json.field("response", app.execute(app.parse(parts[5] + " " + parts[4]))));
+        } else {
+            sendError(exchange, 404, "OOPS!!! There is nothing here.");
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, 200, "{\"workspaces\":" + workspaces.getSize() + ",\"hits\":" + workspaces.getHitCount()
+                    + ",\"misses\":" + workspaces.getMissCount() + ",\"evictions\":" + workspaces.getEvictionCount()
+                    + "}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendTasks(HttpExchange exchange, TaskList tasks) throws IOException, MrDuckyException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String keyword = query.get("keyword");
+        if (keyword != null) {
+            List<Task> found = tasks.find(keyword);
+            send(exchange, 200, "{\"tasks\":" + Json.tasks(found, 0) + "}");
+            return;
+        }
+        int offset = parseCount(query.get("offset"), 0);
+        int limit = parseCount(query.get("limit"), DEFAULT_LIMIT);
+        int total = tasks.getSize();
+        List<Task> page = tasks.getRange(Math.min(offset, total), (int) Math.min((long) offset + limit, total));
+        send(exchange, 200, "{\"total\":" + total + ",\"tasks\":" + Json.tasks(page, offset + 1) + "}");
+    }
+
+    private static int parseCount(String value, int defaultValue) throws MrDuckyException {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new MrDuckyException("OOPS!!! Offset and limit must be whole numbers, not " + value + ".");
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static void requireMethod(String method, String expected) throws MrDuckyException {
+        if (!method.equals(expected)) {
+            throw new MethodNotAllowedException("OOPS!!! Use " + expected + " here, not " + method + ".");
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException, MrDuckyException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new MrDuckyException("OOPS!!! That command is too long.");
+            }
+            return new String(bytes, StandardCharsets.UTF_8).trim();
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, Json.field("error", message));
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * Signals a request made with the wrong HTTP method.
+     */
+    private static class MethodNotAllowedException extends MrDuckyException {
+        private static final long serialVersionUID = 1L;
+
+        MethodNotAllowedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package mrducky.server;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mrducky.MrDuckyApp;
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+
+/**
+ * Keeps the task lists of recently active users in memory and lets idle ones go.
+ *
+ * <p>A user's workspace is loaded from their storage the first time it is acquired, and
+ * stays cached afterwards. Once more workspaces are cached than the count budget allows,
+ * or together they hold more tasks than the task budget allows, the least recently used
+ * idle workspaces are closed, which writes out their buffered changes. A workspace that
+ * is still in use is never evicted, and a user whose workspace is still being closed
+ * waits for that to finish before their data is loaded again.
+ *
+ * <p>Hits, misses and evictions are counted, so operators can size the budgets.
+ */
+public class WorkspaceManager {
+    /** System property setting the most workspaces kept in memory. */
+    public static final String MAX_WORKSPACES_PROPERTY = "mrducky.workspaces.max";
+    /** System property setting the most tasks kept in memory across all workspaces. */
+    public static final String MAX_TASKS_PROPERTY = "mrducky.workspaces.maxTasks";
+    private static final int DEFAULT_MAX_WORKSPACES = 1000;
+    private static final long DEFAULT_MAX_TASKS = 1_000_000;
+    private static final Logger logger = Logger.getLogger(WorkspaceManager.class.getName());
+
+    private final Function<String, MrDuckyApp> loader;
+    private final int maxWorkspaces;
+    private final long maxTasks;
+    // Access order, so iteration starts at the least recently used workspace
+    private final LinkedHashMap<String, Workspace> workspaces = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Workspace> closing = new HashMap<>();
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a workspace manager with the given budgets.
+     *
+     * @param loader Creates the app for a user, loading their tasks.
+     * @param maxWorkspaces Most workspaces kept in memory.
+     * @param maxTasks Most tasks kept in memory across all workspaces.
+     */
+    public WorkspaceManager(Function<String, MrDuckyApp> loader, int maxWorkspaces, long maxTasks) {
+        assert maxWorkspaces > 0 && maxTasks > 0 : "Budgets must be positive";
+        this.loader = loader;
+        this.maxWorkspaces = maxWorkspaces;
+        this.maxTasks = maxTasks;
+    }
+
+    /**
+     * Returns a workspace manager that keeps each user's tasks in a file named after them in the
+     * given directory, with budgets from the {@value #MAX_WORKSPACES_PROPERTY} and
+     * {@value #MAX_TASKS_PROPERTY} system properties.
+     *
+     * @param dataDirectory Directory holding the users' data files.
+     * @return Workspace manager.
+     */
+    public static WorkspaceManager forDirectory(Path dataDirectory) {
+        return new WorkspaceManager(user -> {
+            MrDuckyApp app = new MrDuckyApp(Storage.open(dataDirectory.resolve(user + ".txt")));
+            if (app.getLoadError() != null) {
+                logger.warning("Starting " + user + " with no tasks: " + app.getLoadError());
+            }
+            return app;
+        }, Integer.getInteger(MAX_WORKSPACES_PROPERTY, DEFAULT_MAX_WORKSPACES),
+                Long.getLong(MAX_TASKS_PROPERTY, DEFAULT_MAX_TASKS));
+    }
+
+    /**
+     * Returns the user's workspace, marked as in use until it is closed.
+     * Loads the user's tasks if they are not in memory, and evicts idle workspaces over budget.
+     *
+     * @param user Name of the user.
+     * @return The user's workspace. Close it when the request is done.
+     */
+    public Workspace acquire(String user) {
+        Workspace workspace;
+        List<Workspace> evicted;
+        synchronized (this) {
+            workspace = workspaces.get(user);
+            if (workspace != null) {
+                hitCount++;
+            } else {
+                missCount++;
+                workspace = new Workspace(user, closing.get(user));
+                workspaces.put(user, workspace);
+            }
+            workspace.users++;
+            evicted = evictOverBudget();
+        }
+        for (Workspace idle : evicted) {
+            idle.evict();
+        }
+        return workspace;
+    }
+
+    /**
+     * Closes every cached workspace, writing out their buffered changes.
+     */
+    public void closeAll() {
+        List<Workspace> all;
+        synchronized (this) {
+            all = new ArrayList<>(workspaces.values());
+            workspaces.clear();
+            for (Workspace workspace : all) {
+                closing.put(workspace.user, workspace);
+            }
+        }
+        for (Workspace workspace : all) {
+            workspace.evict();
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of workspaces in memory.
+     *
+     * @return Number of cached workspaces.
+     */
+    public synchronized int getSize() {
+        return workspaces.size();
+    }
+
+    /**
+     * Removes idle workspaces, least recently used first, until the budgets are met or only
+     * busy workspaces are left. Callers hold the lock and close what is returned after releasing it.
+     */
+    private List<Workspace> evictOverBudget() {
+        List<Workspace> evicted = new ArrayList<>();
+        long taskCount = 0;
+        for (Workspace workspace : workspaces.values()) {
+            taskCount += workspace.getTaskCount();
+        }
+        Iterator<Workspace> leastRecent = workspaces.values().iterator();
+        while ((workspaces.size() > maxWorkspaces || taskCount > maxTasks) && leastRecent.hasNext()) {
+            Workspace workspace = leastRecent.next();
+            if (workspace.users > 0) {
+                continue;
+            }
+            leastRecent.remove();
+            closing.put(workspace.user, workspace);
+            taskCount -= workspace.getTaskCount();
+            evictionCount++;
+            evicted.add(workspace);
+        }
+        return evicted;
+    }
+
+    private synchronized void release(Workspace workspace) {
+        workspace.users--;
+    }
+
+    private synchronized void closed(Workspace workspace) {
+        closing.remove(workspace.user, workspace);
+    }
+
+    /**
+     * One user's app, loaded on first use. Closing it ends the caller's use of it.
+     */
+    public final class Workspace implements AutoCloseable {
+        private final String user;
+        private final Workspace previous;
+        private final CountDownLatch isClosed = new CountDownLatch(1);
+        // Guarded by the manager
+        private int users;
+        private volatile MrDuckyApp app;
+
+        private Workspace(String user, Workspace previous) {
+            this.user = user;
+            this.previous = previous;
+        }
+
+        /**
+         * Returns the user's app, loading their tasks on first use.
+         *
+         * @return The user's app.
+         */
+        public synchronized MrDuckyApp getApp() {
+            if (app == null) {
+                if (previous != null) {
+                    // The last workspace of this user may still be writing out its changes
+                    previous.awaitClosed();
+                }
+                app = loader.apply(user);
+            }
+            return app;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+
+        private long getTaskCount() {
+            MrDuckyApp loaded = app;
+            return loaded == null ? 0 : loaded.getTaskList().getSize();
+        }
+
+        private void evict() {
+            try {
+                synchronized (this) {
+                    if (app != null) {
+                        app.close();
+                    }
+                }
+            } catch (MrDuckyException e) {
+                logger.log(Level.WARNING, "Could not save tasks of " + user, e);
+            } finally {
+                isClosed.countDown();
+                closed(this);
+            }
+        }
+
+        private void awaitClosed() {
+            try {
+                isClosed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package mrducky.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Stores tasks in a compact binary file that is read in one pass on load.
+ *
+ * <p>The file starts with a {@value #HEADER_BYTES}-byte header (magic, version, task count).
+ * Each task is a {@value #RECORD_HEADER_BYTES}-byte fixed-width record header followed by
+ * its UTF-8 description:
+ * <pre>
+ *   type (1) | done (1) | reserved (2) | description length (4) | time 1 (8) | time 2 (8) | description
+ * </pre>
+ * Times are epoch seconds of the local date-time read as UTC: the due time for deadlines,
+ * and the start and end times for events. Unused time slots are zero.
+ *
+ * <p>The file is read into memory rather than mapped, since a live mapping would stop a later
+ * save from replacing the file on Windows. Files of 2 GB or more are not loaded.
+ *
+ * <p>As in the text format, marking a task overwrites its done byte and adding a task
+ * appends its record. The count in the header is updated after the record is written,
+ * so a crash in between leaves a file that loads without the new task.
+ */
+public class BinaryStorage extends Storage {
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 24;
+    static final int DONE_OFFSET = 1;
+    private static final int MAGIC = 0x4D444B42;
+    private static final short VERSION = 1;
+    private static final int COUNT_OFFSET = 8;
+    private static final Logger logger = Logger.getLogger(BinaryStorage.class.getName());
+
+    private final Path legacyPath;
+
+    /**
+     * Creates a binary storage handler for the given file.
+     *
+     * @param filePath Path to the binary data file.
+     */
+    public BinaryStorage(Path filePath) {
+        this(filePath, null);
+    }
+
+    /**
+     * Creates a binary storage handler that converts the given text file on first load
+     * if the binary file does not exist yet.
+     *
+     * @param filePath Path to the binary data file.
+     * @param legacyPath Path to a text data file to import, or null.
+     */
+    public BinaryStorage(Path filePath, Path legacyPath) {
+        super(filePath);
+        this.legacyPath = legacyPath;
+    }
+
+    /**
+     * Converts a text data file into the binary format.
+     *
+     * @param textFile Existing data file in the text format.
+     * @param binaryFile Binary file to write.
+     * @param durability Durability of the write.
+     * @return Number of tasks converted.
+     */
+    public static int convert(Path textFile, Path binaryFile, Durability durability) throws MrDuckyException {
+        List<Task> tasks = new Storage(textFile).load();
+        BinaryStorage storage = new BinaryStorage(binaryFile);
+        storage.setDurability(durability);
+        storage.save(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Returns tasks read from the binary file.
+     *
+     * @return List of tasks loaded from disk.
+     */
+    @Override
+    public List<Task> load() throws MrDuckyException {
+        Path filePath = getFilePath();
+        if (!Files.exists(filePath)) {
+            if (legacyPath != null && Files.exists(legacyPath)) {
+                // Written through this storage, so with its durability and counted in its metrics
+                save(new Storage(legacyPath).load());
+            } else {
+                return new ArrayList<>();
+            }
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new MrDuckyException("Data file is too large to load: " + filePath);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break; // The file shrank since its size was read
+                }
+            }
+            buffer.flip();
+            synchronized (this) {
+                return readTasks(buffer);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read data file: " + filePath, e);
+            throw new MrDuckyException("Could not read data file: " + filePath);
+        }
+    }
+
+    /**
+     * Saves the given tasks to the binary file, replacing it in one step unless the
+     * durability is {@link Durability#NONE}.
+     *
+     * @param tasks Tasks to save.
+     */
+    @Override
+    public synchronized void save(List<Task> tasks) throws MrDuckyException {
+        WrittenRecords records = getWrittenRecords();
+        if (records.isPrefixOf(tasks)) {
+            writeChanges(tasks, 0, records.size());
+            return;
+        }
+        Path filePath = getFilePath();
+        List<byte[]> descriptions = new ArrayList<>(tasks.size());
+        long size = HEADER_BYTES;
+        for (Task task : tasks) {
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            descriptions.add(description);
+            size += RECORD_HEADER_BYTES + description.length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new MrDuckyException("Too many tasks to save in one binary file: " + tasks.size());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(tasks.size()).putInt(0);
+        records.start(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            records.add(task, task.getVersion(), buffer.position());
+            writeRecord(buffer, task, descriptions.get(i));
+        }
+        records.setEnd(buffer.position());
+        buffer.flip();
+        try {
+            writeBytes(filePath, buffer);
+        } catch (IOException e) {
+            records.clear();
+            logger.log(Level.WARNING, "Could not write to data file: " + filePath, e);
+            throw new MrDuckyException("Could not write to data file: " + filePath);
+        }
+    }
+
+    @Override
+    int getDoneOffset() {
+        return DONE_OFFSET;
+    }
+
+    @Override
+    byte encodeDone(boolean isDone) {
+        return (byte) (isDone ? 1 : 0);
+    }
+
+    @Override
+    byte[] encodeRecord(Task task) {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + description.length);
+        writeRecord(buffer, task, description);
+        return buffer.array();
+    }
+
+    @Override
+    void afterAppend(int recordCount) throws IOException {
+        // Big-endian, as ByteBuffer wrote it
+        long[] positions = new long[Integer.BYTES];
+        byte[] values = new byte[Integer.BYTES];
+        for (int i = 0; i < Integer.BYTES; i++) {
+            positions[i] = COUNT_OFFSET + i;
+            values[i] = (byte) (recordCount >>> (8 * (Integer.BYTES - 1 - i)));
+        }
+        patchBytes(getFilePath(), positions, values, Integer.BYTES);
+    }
+
+    private List<Task> readTasks(ByteBuffer buffer) throws MrDuckyException {
+        WrittenRecords records = getWrittenRecords();
+        records.clear();
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new MrDuckyException("Not a MrDucky binary data file: " + getFilePath());
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new MrDuckyException("Unsupported binary data file version: " + buffer.getShort(4));
+        }
+        int count = buffer.getInt(COUNT_OFFSET);
+        List<Task> tasks = new ArrayList<>(count);
+        records.start(Math.min(count, buffer.limit() / RECORD_HEADER_BYTES));
+        int position = HEADER_BYTES;
+        int limit = buffer.limit();
+        for (int i = 0; i < count && position + RECORD_HEADER_BYTES <= limit; i++) {
+            int length = buffer.getInt(position + 4);
+            int descriptionStart = position + RECORD_HEADER_BYTES;
+            if (length < 0 || descriptionStart + length > limit) {
+                // Truncated file: keep the records that are complete
+                break;
+            }
+            Task task = readRecord(buffer, position, descriptionStart, length);
+            if (task != null) {
+                tasks.add(task);
+                records.add(task, task.getVersion(), position);
+            }
+            position = descriptionStart + length;
+        }
+        records.setEnd(position);
+        if (tasks.size() != count || position != limit) {
+            // Skipped or truncated records, so the first change rewrites the file
+            records.clear();
+        }
+        return tasks;
+    }
+
+    private static Task readRecord(ByteBuffer buffer, int position, int descriptionStart, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(descriptionStart, bytes);
+        String description = new String(bytes, StandardCharsets.UTF_8);
+        Task task;
+        try {
+            switch (buffer.get(position)) {
+            case 'T':
+                task = new ToDo(description);
+                break;
+            case 'D':
+                task = new Deadline(description, toDateTime(buffer.getLong(position + 8)));
+                break;
+            case 'E':
+                task = new Event(description, toDateTime(buffer.getLong(position + 8)),
+                        toDateTime(buffer.getLong(position + 16)));
+                break;
+            default:
+                return null; // Unknown task type
+            }
+        } catch (DateTimeException e) {
+            return null; // Time out of the supported range
+        }
+        task.setDone(buffer.get(position + DONE_OFFSET) == 1);
+        return task;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, Task task, byte[] description) {
+        long first = 0;
+        long second = 0;
+        byte type;
+        if (task instanceof ToDo) {
+            type = 'T';
+        } else if (task instanceof Deadline) {
+            type = 'D';
+            first = toEpochSecond(((Deadline) task).getDueDate());
+        } else if (task instanceof Event) {
+            type = 'E';
+            first = toEpochSecond(((Event) task).getFromTime());
+            second = toEpochSecond(((Event) task).getToTime());
+        } else {
+            throw new IllegalArgumentException("Unknown task type");
+        }
+        buffer.put(type).put((byte) (task.isDone() ? 1 : 0)).putShort((short) 0).putInt(description.length)
+                .putLong(first).putLong(second).put(description);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,39 @@
+package mrducky.storage;
+
+/**
+ * How hard a save tries to survive a crash, traded against how long it takes.
+ */
+public enum Durability {
+    /** Overwrites the data file in place. Fastest, but a crash mid-write leaves a truncated file. */
+    NONE,
+    /**
+     * Writes a temporary file and renames it over the data file, so a crash of the program
+     * leaves either the old file or the new one. The operating system decides when the bytes
+     * reach the disk, so a power cut can still lose the latest saves.
+     */
+    OS,
+    /**
+     * Like {@link #OS}, but forces the file and the rename to the disk before the save returns,
+     * so a finished save also survives a power cut. Journal appends are forced as well.
+     */
+    FSYNC;
+
+    /** System property selecting the durability ({@code none}, {@code os} or {@code fsync}). */
+    public static final String PROPERTY = "mrducky.durability";
+
+    /**
+     * Returns the durability chosen by the {@value #PROPERTY} system property, or {@link #OS}
+     * if it is not set or not recognised.
+     *
+     * @return Configured durability.
+     */
+    public static Durability fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "os");
+        for (Durability durability : values()) {
+            if (durability.name().equalsIgnoreCase(value.trim())) {
+                return durability;
+            }
+        }
+        return OS;
+    }
+}
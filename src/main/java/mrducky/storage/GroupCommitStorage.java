@@ -0,0 +1,285 @@
+package mrducky.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Holds back bursts of mutations and writes them to another storage together.
+ * Changes are buffered until a batch of mutations has built up or the flush interval
+ * has passed since the first of them. {@link #flush()} is a durability barrier, and a
+ * shutdown hook flushes whatever is still buffered when the JVM exits.
+ *
+ * <p>A flush replays the buffered adds, marks and unmarks through the other storage's
+ * {@link #saveAdded} and {@link #saveUpdated}, each against the list as it was then, so a
+ * journal appends a record per change instead of rewriting its snapshot. Once a task has
+ * been deleted, or the list no longer holds the added tasks where they were added, the
+ * list as it was then cannot be rebuilt, and the flush saves the whole list instead.
+ *
+ * <p>The tasks handed in are a live view of the task list, so flushes that run outside a
+ * mutation (on the timer, in the shutdown hook or on {@link #close()}) hold the
+ * {@linkplain #setMutationLock mutation lock} while they read it.
+ */
+public class GroupCommitStorage extends Storage {
+    /** System property that turns on group commit in {@link Storage#open}. */
+    public static final String ENABLED_PROPERTY = "mrducky.groupCommit";
+    /** System property overriding the number of mutations buffered before a flush. */
+    public static final String BATCH_SIZE_PROPERTY = "mrducky.groupCommit.batchSize";
+    /** System property overriding the longest time, in milliseconds, changes stay buffered. */
+    public static final String INTERVAL_PROPERTY = "mrducky.groupCommit.intervalMs";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final long DEFAULT_INTERVAL_MILLIS = 250;
+    private static final Logger logger = Logger.getLogger(GroupCommitStorage.class.getName());
+    // One thread times the flushes of every group-commit storage, as the server has one per user
+    private static final ScheduledExecutorService flushTimer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "mrducky-group-commit-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Storage delegate;
+    private final int batchSize;
+    private final long intervalNanos;
+    private final Thread shutdownHook;
+    private Object mutationLock = this;
+    private final List<Change> pendingChanges = new ArrayList<>();
+    private List<Task> dirtyTasks;
+    private boolean hasPendingDelete;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * Creates a group-commit wrapper using the batch size and interval from system properties.
+     *
+     * @param delegate Storage that buffered changes are flushed to.
+     */
+    public GroupCommitStorage(Storage delegate) {
+        this(delegate, Integer.getInteger(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE),
+                Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Creates a group-commit wrapper with the given batch size and flush interval.
+     *
+     * @param delegate Storage that buffered changes are flushed to.
+     * @param batchSize Number of buffered mutations that forces a flush.
+     * @param intervalMillis Longest time changes stay buffered.
+     */
+    public GroupCommitStorage(Storage delegate, int batchSize, long intervalMillis) {
+        super(delegate.getFilePath());
+        assert batchSize > 0 : "Batch size must be positive";
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.shutdownHook = new Thread(this::flushOnShutdown, "mrducky-group-commit-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    @Override
+    public Durability getDurability() {
+        return delegate.getDurability();
+    }
+
+    @Override
+    public void setDurability(Durability durability) {
+        delegate.setDurability(durability);
+    }
+
+    @Override
+    public SaveMetrics getSaveMetrics() {
+        return delegate.getSaveMetrics();
+    }
+
+    @Override
+    public synchronized void setMutationLock(Object lock) {
+        mutationLock = lock;
+    }
+
+    @Override
+    public List<Task> load() throws MrDuckyException {
+        return delegate.load();
+    }
+
+    @Override
+    public TaskList loadTaskList() throws MrDuckyException {
+        return delegate.loadTaskList();
+    }
+
+    @Override
+    public synchronized void save(List<Task> tasks) throws MrDuckyException {
+        delegate.save(tasks);
+        clearPending();
+    }
+
+    @Override
+    public void saveAdded(List<Task> tasks, Task task) throws MrDuckyException {
+        bufferChange(tasks, new Change(task, tasks.size() - 1, tasks.size(), false));
+    }
+
+    @Override
+    public void saveUpdated(List<Task> tasks, int index) throws MrDuckyException {
+        bufferChange(tasks, new Change(null, index, tasks.size(), false));
+    }
+
+    @Override
+    public void saveDeleted(List<Task> tasks, int index) throws MrDuckyException {
+        bufferChange(tasks, new Change(null, index, tasks.size(), true));
+    }
+
+    /**
+     * Writes all buffered changes to the underlying storage.
+     */
+    @Override
+    public void flush() throws MrDuckyException {
+        // The mutation lock is always taken before this storage's own, as mutations take it first
+        synchronized (getMutationLock()) {
+            synchronized (this) {
+                writePending();
+                delegate.flush();
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered changes and removes the shutdown hook, so a closed storage can be
+     * garbage collected.
+     */
+    @Override
+    public void close() throws MrDuckyException {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down, so the hook flushes as well
+        }
+        flush();
+        delegate.close();
+    }
+
+    /**
+     * Returns the number of mutations buffered since the last flush.
+     *
+     * @return Number of unflushed mutations.
+     */
+    public synchronized int getPendingCount() {
+        return pendingChanges.size();
+    }
+
+    private synchronized Object getMutationLock() {
+        return mutationLock;
+    }
+
+    /**
+     * Buffers a change. Called by mutations, which already hold the mutation lock.
+     */
+    private synchronized void bufferChange(List<Task> tasks, Change change) throws MrDuckyException {
+        dirtyTasks = tasks;
+        pendingChanges.add(change);
+        hasPendingDelete |= change.isDelete;
+        if (pendingChanges.size() >= batchSize) {
+            writePending();
+        } else if (scheduledFlush == null) {
+            scheduledFlush = flushTimer.schedule(this::flushOnTimer, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void writePending() throws MrDuckyException {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        if (!canReplay()) {
+            delegate.save(dirtyTasks);
+            clearPending();
+            return;
+        }
+        int written = 0;
+        try {
+            for (Change change : pendingChanges) {
+                List<Task> tasksThen = dirtyTasks.subList(0, change.size);
+                if (change.added != null) {
+                    delegate.saveAdded(tasksThen, change.added);
+                } else {
+                    delegate.saveUpdated(tasksThen, change.index);
+                }
+                written++;
+            }
+        } finally {
+            // Changes already written are not replayed again if a later one fails
+            pendingChanges.subList(0, written).clear();
+        }
+        clearPending();
+    }
+
+    /**
+     * Returns whether the list as it was after each buffered change is a prefix of the list now,
+     * which holds while nothing was deleted and every added task is still where it was added.
+     */
+    private boolean canReplay() {
+        if (hasPendingDelete || dirtyTasks.size() != pendingChanges.get(pendingChanges.size() - 1).size) {
+            return false;
+        }
+        for (Change change : pendingChanges) {
+            if (change.added != null && dirtyTasks.get(change.index) != change.added) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void clearPending() {
+        dirtyTasks = null;
+        pendingChanges.clear();
+        hasPendingDelete = false;
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    private void flushOnTimer() {
+        try {
+            synchronized (getMutationLock()) {
+                synchronized (this) {
+                    // Cleared first, so a failed write is retried after the next change
+                    scheduledFlush = null;
+                    writePending();
+                }
+            }
+        } catch (MrDuckyException e) {
+            logger.log(Level.WARNING, "Could not flush buffered changes", e);
+        }
+    }
+
+    private void flushOnShutdown() {
+        try {
+            flush();
+        } catch (MrDuckyException e) {
+            logger.log(Level.WARNING, "Could not flush buffered changes on shutdown", e);
+        }
+    }
+
+    /**
+     * One buffered mutation: the task added or the index changed, and the size of the list right after it.
+     */
+    private static class Change {
+        private final Task added;
+        private final int index;
+        private final int size;
+        private final boolean isDelete;
+
+        Change(Task added, int index, int size, boolean isDelete) {
+            this.added = added;
+            this.index = index;
+            this.size = size;
+            this.isDelete = isDelete;
+        }
+    }
+}
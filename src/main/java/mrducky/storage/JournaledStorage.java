@@ -0,0 +1,354 @@
+package mrducky.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+
+/**
+ * Stores tasks as a snapshot file plus an append-only journal of mutations.
+ * Each mutation appends one short record instead of rewriting the whole file.
+ * Once the journal grows past a size threshold it is rotated and folded into a
+ * fresh snapshot on a background thread.
+ *
+ * <p>Journals are numbered by generation ({@code mrducky.txt.journal.3}). The snapshot
+ * starts with a {@code # journal N} line recording the first generation it does not
+ * contain yet, so a crash at any point during compaction never replays a journal twice.
+ * The plain {@link Storage} skips that line, so snapshots stay readable in plain mode.
+ */
+public class JournaledStorage extends Storage {
+    /** System property overriding the journal size (in bytes) that triggers compaction. */
+    public static final String COMPACT_THRESHOLD_PROPERTY = "mrducky.journal.compactBytes";
+    private static final long DEFAULT_COMPACT_THRESHOLD = 1024 * 1024;
+    private static final String HEADER_PREFIX = "# journal ";
+    private static final String ADD = "ADD";
+    private static final String MARK = "MARK";
+    private static final String UNMARK = "UNMARK";
+    private static final String DELETE = "DELETE";
+    private static final Logger logger = Logger.getLogger(JournaledStorage.class.getName());
+
+    private final long compactThreshold;
+    private final ExecutorService compactor;
+    private long generation;
+    private long journalBytes;
+    private Future<?> pendingCompaction;
+
+    /**
+     * Creates a journaled storage handler for the given snapshot file.
+     *
+     * @param filePath Path to the snapshot file.
+     */
+    public JournaledStorage(Path filePath) {
+        this(filePath, Long.getLong(COMPACT_THRESHOLD_PROPERTY, DEFAULT_COMPACT_THRESHOLD));
+    }
+
+    /**
+     * Creates a journaled storage handler that compacts once the journal passes the given size.
+     *
+     * @param filePath Path to the snapshot file.
+     * @param compactThreshold Journal size in bytes that triggers compaction.
+     */
+    public JournaledStorage(Path filePath, long compactThreshold) {
+        super(filePath);
+        this.compactThreshold = compactThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mrducky-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns tasks from the snapshot with every journal replayed on top.
+     *
+     * @return List of tasks loaded from disk.
+     */
+    @Override
+    public synchronized List<Task> load() throws MrDuckyException {
+        try {
+            Snapshot snapshot = readSnapshot();
+            TreeMap<Long, Path> journals = findJournals();
+            generation = snapshot.generation;
+            journalBytes = 0;
+            for (Map.Entry<Long, Path> entry : journals.entrySet()) {
+                if (entry.getKey() >= snapshot.generation) {
+                    journalBytes = replay(entry.getValue(), snapshot.tasks);
+                    generation = entry.getKey();
+                }
+            }
+            Path current = journalPath(generation);
+            if (Files.exists(current) && Files.size(current) > journalBytes) {
+                // Cut off a torn record, or the next append would run on from it
+                try (FileChannel channel = FileChannel.open(current, StandardOpenOption.WRITE)) {
+                    channel.truncate(journalBytes);
+                }
+            }
+            return snapshot.tasks;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not read data file: " + getFilePath());
+        }
+    }
+
+    /**
+     * Writes a full snapshot of the given tasks and discards all journals.
+     *
+     * @param tasks Tasks to save.
+     */
+    @Override
+    public synchronized void save(List<Task> tasks) throws MrDuckyException {
+        awaitCompaction();
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(formatTask(task));
+        }
+        try {
+            generation++;
+            writeSnapshot(lines, generation);
+            deleteJournalsBefore(generation);
+            journalBytes = 0;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write to data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not write to data file: " + getFilePath());
+        }
+    }
+
+    @Override
+    public void saveAdded(List<Task> tasks, Task task) throws MrDuckyException {
+        append(ADD + " | " + formatTask(task));
+    }
+
+    @Override
+    public void saveUpdated(List<Task> tasks, int index) throws MrDuckyException {
+        append((tasks.get(index).isDone() ? MARK : UNMARK) + " | " + index);
+    }
+
+    @Override
+    public void saveDeleted(List<Task> tasks, int index) throws MrDuckyException {
+        append(DELETE + " | " + index);
+    }
+
+    /**
+     * Blocks until any running compaction has finished.
+     */
+    public synchronized void awaitCompaction() {
+        if (pendingCompaction == null) {
+            return;
+        }
+        try {
+            pendingCompaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "Journal compaction failed", e.getCause());
+        }
+        pendingCompaction = null;
+    }
+
+    /**
+     * Waits for any running compaction and stops the compaction thread.
+     */
+    @Override
+    public synchronized void close() throws MrDuckyException {
+        awaitCompaction();
+        compactor.shutdown();
+        super.close();
+    }
+
+    private synchronized void append(String record) throws MrDuckyException {
+        byte[] bytes = (record + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        try {
+            appendBytes(journalPath(generation), bytes);
+            journalBytes += bytes.length;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not append to journal: " + journalPath(generation), e);
+            throw new MrDuckyException("Could not write to data file: " + getFilePath());
+        }
+        if (journalBytes >= compactThreshold) {
+            startCompaction();
+        }
+    }
+
+    /**
+     * Rotates the journal and folds every older generation into a new snapshot in the background.
+     * Appends carry on into the new journal while the snapshot is being written.
+     */
+    private void startCompaction() {
+        if (pendingCompaction != null && !pendingCompaction.isDone()) {
+            return;
+        }
+        generation++;
+        journalBytes = 0;
+        long upTo = generation;
+        pendingCompaction = compactor.submit(() -> {
+            compact(upTo);
+            return null;
+        });
+    }
+
+    private void compact(long upTo) throws IOException {
+        Snapshot snapshot = readSnapshot();
+        for (Map.Entry<Long, Path> entry : findJournals().headMap(upTo).entrySet()) {
+            if (entry.getKey() >= snapshot.generation) {
+                replay(entry.getValue(), snapshot.tasks);
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        for (Task task : snapshot.tasks) {
+            lines.add(formatTask(task));
+        }
+        writeSnapshot(lines, upTo);
+        deleteJournalsBefore(upTo);
+    }
+
+    private Snapshot readSnapshot() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        long snapshotGeneration = 0;
+        if (Files.exists(getFilePath())) {
+            List<String> lines = Files.readAllLines(getFilePath());
+            if (!lines.isEmpty() && lines.get(0).startsWith(HEADER_PREFIX)) {
+                snapshotGeneration = parseGeneration(lines.get(0).substring(HEADER_PREFIX.length()));
+            }
+            for (String line : lines) {
+                Task task = parseLine(line);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+        return new Snapshot(tasks, snapshotGeneration);
+    }
+
+    private void writeSnapshot(List<String> lines, long nextGeneration) throws IOException {
+        List<String> content = new ArrayList<>(lines.size() + 1);
+        content.add(HEADER_PREFIX + nextGeneration);
+        content.addAll(lines);
+        writeLines(getFilePath(), content);
+    }
+
+    /**
+     * Applies the journal's records to the tasks, and returns the number of bytes up to the end
+     * of its last whole record. Every record ends with a line separator, so a final record
+     * without one was torn by a crash mid-append and is dropped: a torn {@code DELETE | 12}
+     * would otherwise replay as {@code DELETE | 1}.
+     */
+    private long replay(Path journal, List<Task> tasks) throws IOException {
+        byte[] bytes = Files.readAllBytes(journal);
+        int intactLength = bytes.length;
+        while (intactLength > 0 && bytes[intactLength - 1] != '\n') {
+            intactLength--;
+        }
+        if (intactLength < bytes.length) {
+            logger.warning("Dropping torn journal record in " + journal + ": "
+                    + new String(bytes, intactLength, bytes.length - intactLength, StandardCharsets.UTF_8));
+        }
+        String records = new String(bytes, 0, intactLength, StandardCharsets.UTF_8);
+        records.lines().forEach(record -> replayRecord(journal, record, tasks));
+        return intactLength;
+    }
+
+    private void replayRecord(Path journal, String record, List<Task> tasks) {
+        if (record.isBlank()) {
+            return;
+        }
+        int separator = record.indexOf('|');
+        if (separator < 0) {
+            logger.warning("Skipping malformed journal record in " + journal + ": " + record);
+            return;
+        }
+        String op = record.substring(0, separator).trim();
+        String arg = record.substring(separator + 1).trim();
+        try {
+            applyRecord(op, arg, tasks);
+        } catch (RuntimeException e) {
+            logger.warning("Skipping malformed journal record in " + journal + ": " + record);
+        }
+    }
+
+    private void applyRecord(String op, String arg, List<Task> tasks) {
+        switch (op) {
+        case ADD:
+            Task task = parseLine(arg);
+            if (task != null) {
+                tasks.add(task);
+            }
+            break;
+        case MARK:
+            tasks.get(Integer.parseInt(arg)).mark();
+            break;
+        case UNMARK:
+            tasks.get(Integer.parseInt(arg)).unmark();
+            break;
+        case DELETE:
+            tasks.remove(Integer.parseInt(arg));
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown journal operation: " + op);
+        }
+    }
+
+    private TreeMap<Long, Path> findJournals() throws IOException {
+        TreeMap<Long, Path> journals = new TreeMap<>();
+        Path dir = getFilePath().toAbsolutePath().getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return journals;
+        }
+        String prefix = getFilePath().getFileName() + ".journal.";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path journal : stream) {
+                long journalGeneration = parseGeneration(journal.getFileName().toString().substring(prefix.length()));
+                if (journalGeneration >= 0) {
+                    journals.put(journalGeneration, journal);
+                }
+            }
+        }
+        return journals;
+    }
+
+    private void deleteJournalsBefore(long upTo) throws IOException {
+        for (Path journal : findJournals().headMap(upTo).values()) {
+            Files.deleteIfExists(journal);
+        }
+    }
+
+    private Path journalPath(long journalGeneration) {
+        return getFilePath().resolveSibling(getFilePath().getFileName() + ".journal." + journalGeneration);
+    }
+
+    private static long parseGeneration(String text) {
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Tasks read from a snapshot file with the first journal generation not yet folded in.
+     */
+    private static class Snapshot {
+        private final List<Task> tasks;
+        private final long generation;
+
+        Snapshot(List<Task> tasks, long generation) {
+            this.tasks = tasks;
+            this.generation = Math.max(generation, 0);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package mrducky.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+
+/**
+ * Stores tasks in the plain text format, but reads each task from disk only when it is first used.
+ *
+ * <p>Starting up scans the file for where each line starts, without parsing any task, and
+ * the keyword and time indexes wait for the first search. Until a task is deleted, marking
+ * a task overwrites its done status in place and adding one appends its line, as plain
+ * storage does. A delete or a full save reads every remaining task and rewrites the file,
+ * after which this storage behaves exactly like plain storage.
+ */
+public class LazyStorage extends Storage {
+    private static final Logger logger = Logger.getLogger(LazyStorage.class.getName());
+    private LazyTextFile lazyFile;
+
+    /**
+     * Creates a storage handler that reads tasks on demand from the given file path.
+     *
+     * @param filePath Path to the data file.
+     */
+    public LazyStorage(Path filePath) {
+        super(filePath);
+    }
+
+    @Override
+    public synchronized List<Task> load() throws MrDuckyException {
+        dropLazyFile();
+        return super.load();
+    }
+
+    /**
+     * Returns a task list that reads each task from the data file when first used.
+     * Files that were written by hand or by an older version are read in full instead.
+     *
+     * @return Task list of the tasks on disk.
+     */
+    @Override
+    public synchronized TaskList loadTaskList() throws MrDuckyException {
+        dropLazyFile();
+        getWrittenRecords().clear();
+        LazyTextFile scanned;
+        try {
+            scanned = LazyTextFile.scan(getFilePath());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not read data file: " + getFilePath());
+        }
+        if (scanned == null) {
+            return super.loadTaskList();
+        }
+        lazyFile = scanned;
+        return new TaskList(scanned);
+    }
+
+    @Override
+    public synchronized void save(List<Task> tasks) throws MrDuckyException {
+        // Reads every remaining task before the file is replaced
+        LazyTextFile replaced = lazyFile;
+        lazyFile = null;
+        try {
+            super.save(tasks);
+        } finally {
+            lazyFile = replaced;
+            dropLazyFile();
+        }
+    }
+
+    @Override
+    public synchronized void saveAdded(List<Task> tasks, Task task) throws MrDuckyException {
+        if (lazyFile == null) {
+            super.saveAdded(tasks, task);
+            return;
+        }
+        int recorded = lazyFile.size();
+        if (tasks.size() != recorded + 1 || tasks.get(recorded) != task) {
+            save(tasks);
+            return;
+        }
+        byte[] record = encodeRecord(task);
+        try {
+            appendBytes(getFilePath(), record);
+        } catch (IOException e) {
+            dropLazyFile();
+            logger.log(Level.WARNING, "Could not write to data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not write to data file: " + getFilePath());
+        }
+        lazyFile.append(task, record.length);
+    }
+
+    @Override
+    public synchronized void saveUpdated(List<Task> tasks, int index) throws MrDuckyException {
+        if (lazyFile == null) {
+            super.saveUpdated(tasks, index);
+            return;
+        }
+        if (tasks.size() != lazyFile.size() || !lazyFile.isLoadedAt(index, tasks.get(index))) {
+            save(tasks);
+            return;
+        }
+        long[] positions = {lazyFile.offsetAt(index) + getDoneOffset()};
+        byte[] values = {encodeDone(tasks.get(index).isDone())};
+        try {
+            patchBytes(getFilePath(), positions, values, 1);
+        } catch (IOException e) {
+            dropLazyFile();
+            logger.log(Level.WARNING, "Could not write to data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not write to data file: " + getFilePath());
+        }
+    }
+
+    @Override
+    public void saveDeleted(List<Task> tasks, int index) throws MrDuckyException {
+        save(tasks);
+    }
+
+    @Override
+    public synchronized void close() throws MrDuckyException {
+        dropLazyFile();
+        super.close();
+    }
+
+    /**
+     * Stops writing changes in place and closes the file the tasks were read through.
+     */
+    private void dropLazyFile() {
+        if (lazyFile == null) {
+            return;
+        }
+        try {
+            lazyFile.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not close data file: " + getFilePath(), e);
+        }
+        lazyFile = null;
+    }
+}
@@ -0,0 +1,297 @@
+package mrducky.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import mrducky.task.LazyTasks;
+import mrducky.task.Task;
+
+/**
+ * Tasks of a text data file, read from disk one window at a time as they are asked for.
+ *
+ * <p>Scanning the file only records where each line starts, which costs a long per task
+ * instead of a parsed task. A task is parsed the first time it is asked for and then kept,
+ * so each position always returns the same task. Reads go through a window of the file,
+ * so going through the tasks in order costs one read per {@value #WINDOW_BYTES} bytes,
+ * all on the channel the scan opened.
+ *
+ * <p>The scan also checks that every line will parse, without creating anything, since a
+ * line found to be malformed later could no longer be skipped without shifting every
+ * later position. Files with such lines are read in full instead, which skips them.
+ */
+class LazyTextFile implements LazyTasks {
+    private static final int SCAN_BUFFER_BYTES = 1024 * 1024;
+    private static final int WINDOW_BYTES = 64 * 1024;
+    private static final int MIN_CAPACITY = 16;
+    // Lines start "T | 1 | ", and the scan checks the bytes up to the space after the done status
+    private static final int HEADER_BYTES = 6;
+    private final Path filePath;
+    private final TaskLineParser parser = new TaskLineParser();
+    private FileChannel channel;
+    private long[] offsets;
+    private Task[] loaded;
+    private int size;
+    private long end;
+    private byte[] window = new byte[WINDOW_BYTES];
+    private long windowStart;
+    private int windowLength;
+
+    private LazyTextFile(Path filePath, FileChannel channel, int capacity) {
+        this.filePath = filePath;
+        this.channel = channel;
+        this.offsets = new long[capacity];
+        this.loaded = new Task[capacity];
+    }
+
+    /**
+     * Scans the data file for the start of each task's line, and checks that each line parses.
+     * Returns null if the file does not exist, or holds anything other than task lines with the
+     * done status at the usual column and blank lines, or a line that would not parse, or does
+     * not end with a line break. Such files are read in full instead, the same way as before.
+     *
+     * @param filePath Path to the data file.
+     * @return Tasks of the file, none of them read yet, or null.
+     */
+    static LazyTextFile scan(Path filePath) throws IOException {
+        if (!Files.exists(filePath)) {
+            return null;
+        }
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        LazyTextFile file = null;
+        try {
+            file = scan(filePath, channel);
+            return file;
+        } finally {
+            if (file == null) {
+                channel.close();
+            }
+        }
+    }
+
+    private static LazyTextFile scan(Path filePath, FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        LazyTextFile file = new LazyTextFile(filePath, channel,
+                (int) Math.max(MIN_CAPACITY, Math.min(fileSize / 32, Integer.MAX_VALUE / 2)));
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        byte[] bytes = buffer.array();
+        ByteChars chars = new ByteChars(bytes);
+        long bufferStart = 0;
+        int lineStart = 0;
+        int next = 0;
+        while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+            int length = buffer.position();
+            for (; next < length; next++) {
+                if (bytes[next] != '\n' && bytes[next] != '\r') {
+                    continue;
+                }
+                if (next > lineStart) {
+                    if (!isTaskLine(bytes, lineStart, next) || !file.parser.isReadable(chars, lineStart, next)) {
+                        return null;
+                    }
+                    file.add(bufferStart + lineStart);
+                }
+                lineStart = next + 1;
+            }
+            // Moves the unfinished line to the front, so every line is checked whole
+            System.arraycopy(bytes, lineStart, bytes, 0, length - lineStart);
+            buffer.position(length - lineStart);
+            bufferStart += lineStart;
+            next -= lineStart;
+            lineStart = 0;
+        }
+        if (buffer.position() > 0) {
+            // No line break after the last task, so appending would join two lines,
+            // or a line longer than the buffer
+            return null;
+        }
+        file.end = bufferStart;
+        return file;
+    }
+
+    private static boolean isTaskLine(byte[] bytes, int start, int end) {
+        if (end - start < HEADER_BYTES) {
+            return false;
+        }
+        for (int column = 0; column < HEADER_BYTES; column++) {
+            if (!isHeaderByte(column, bytes[start + column])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHeaderByte(int column, byte b) {
+        switch (column) {
+        case 0:
+            return b == 'T' || b == 'D' || b == 'E';
+        case 1:
+        case 3:
+        case 5:
+            return b == ' ';
+        case 2:
+            return b == '|';
+        default:
+            return b == '0' || b == '1';
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the task at the given position, reading and parsing its line the first time.
+     *
+     * @param index Zero-based position of the task.
+     * @return The task.
+     * @throws UncheckedIOException If the file cannot be read, or was changed by something else since the scan.
+     */
+    @Override
+    public synchronized Task load(int index) {
+        Task task = loaded[index];
+        if (task != null) {
+            return task;
+        }
+        try {
+            String line = readLine(offsets[index]);
+            task = parser.parse(line);
+            if (task == null) {
+                throw new IOException("Line " + (index + 1) + " no longer holds a task");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read data file: " + filePath, e);
+        }
+        loaded[index] = task;
+        return task;
+    }
+
+    /**
+     * Closes the channel the tasks are read through. Reading another task opens it again.
+     */
+    synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns whether the given task is the one read or appended at the given position.
+     *
+     * @param index Zero-based position.
+     * @param task Task expected there.
+     * @return True if the task's done status can be patched at {@link #offsetAt(int)}.
+     */
+    synchronized boolean isLoadedAt(int index, Task task) {
+        return index >= 0 && index < size && loaded[index] == task;
+    }
+
+    synchronized long offsetAt(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Records a task that was just appended to the file as a record of the given length.
+     *
+     * @param task Task that was appended.
+     * @param recordLength Number of bytes appended.
+     */
+    synchronized void append(Task task, int recordLength) {
+        add(end);
+        loaded[size - 1] = task;
+        end += recordLength;
+    }
+
+    private void add(long offset) {
+        if (size == offsets.length) {
+            int capacity = Math.max(MIN_CAPACITY, size * 2);
+            offsets = Arrays.copyOf(offsets, capacity);
+            loaded = Arrays.copyOf(loaded, capacity);
+        }
+        offsets[size++] = offset;
+    }
+
+    /**
+     * Returns the line starting at the given offset, without its line break, moving the window
+     * to start there if the line is not already inside it.
+     */
+    private String readLine(long offset) throws IOException {
+        int lineEnd = findLineEnd(offset);
+        if (lineEnd < 0) {
+            fillWindow(offset);
+            lineEnd = findLineEnd(offset);
+        }
+        while (lineEnd < 0) {
+            if (windowLength < window.length) {
+                throw new IOException("Data file ended inside a line: " + filePath);
+            }
+            // A line longer than the window
+            window = Arrays.copyOf(window, window.length * 2);
+            fillWindow(offset);
+            lineEnd = findLineEnd(offset);
+        }
+        int lineStart = (int) (offset - windowStart);
+        return new String(window, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the window index of the line break ending the line at the given offset,
+     * or -1 if the window does not hold the whole line.
+     */
+    private int findLineEnd(long offset) {
+        if (offset < windowStart || offset >= windowStart + windowLength) {
+            return -1;
+        }
+        for (int i = (int) (offset - windowStart); i < windowLength; i++) {
+            if (window[i] == '\n' || window[i] == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void fillWindow(long offset) throws IOException {
+        if (!channel.isOpen()) {
+            // Closed, or interrupted during an earlier read
+            channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(window, 0, (int) Math.min(window.length, end - offset));
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+            // Keep reading until the window is full
+        }
+        windowStart = offset;
+        windowLength = buffer.position();
+    }
+
+    /**
+     * Bytes read as characters one for one, enough for checking the ASCII structure of a line.
+     * Bytes of other UTF-8 characters become characters that never match it.
+     */
+    private static class ByteChars implements CharSequence {
+        private final byte[] bytes;
+
+        ByteChars(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package mrducky.storage;
+
+import mrducky.metrics.Histogram;
+import mrducky.metrics.Metrics;
+
+/**
+ * Counts the writes a storage makes and how long they take, so durability policies can be compared.
+ * Safe to update from several threads, since journal compaction writes in the background.
+ * Every write is also added to the process-wide {@link Metrics}.
+ */
+public class SaveMetrics {
+    private final Histogram nanos = new Histogram();
+    private long count;
+    private long bytes;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Records one finished write.
+     *
+     * @param byteCount Number of bytes written.
+     * @param nanos Time the write took, in nanoseconds.
+     */
+    void record(long byteCount, long nanos) {
+        synchronized (this) {
+            count++;
+            bytes += byteCount;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+        this.nanos.record(nanos);
+        Metrics.getDefault().recordSave(byteCount, nanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the mean time a write took.
+     *
+     * @return Mean write time in microseconds, or 0 if nothing was written.
+     */
+    public synchronized double getMeanMicros() {
+        return count == 0 ? 0 : totalNanos / 1000.0 / count;
+    }
+
+    /**
+     * Returns the longest time a write took.
+     *
+     * @return Longest write time in microseconds.
+     */
+    public synchronized double getMaxMicros() {
+        return maxNanos / 1000.0;
+    }
+
+    /**
+     * Returns a time that the given percentage of writes took at most.
+     *
+     * @param percentile Percentage from 0 to 100.
+     * @return Write time in microseconds, to within a sixteenth, or 0 if nothing was written.
+     */
+    public double getPercentileMicros(double percentile) {
+        return nanos.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d writes, %d bytes, mean %.1f us, p99 %.1f us, max %.1f us",
+                count, bytes, getMeanMicros(), getPercentileMicros(99), getMaxMicros());
+    }
+}
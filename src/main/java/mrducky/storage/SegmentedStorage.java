@@ -0,0 +1,438 @@
+package mrducky.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+
+/**
+ * Stores tasks in a directory of segment files, each holding up to a fixed number of tasks
+ * in the text format, listed in order by a small manifest.
+ *
+ * <p>Segments are parsed in parallel on the common fork-join pool and joined in manifest
+ * order, so loading a large list gets faster with more cores. An added task is appended to
+ * the last segment, and any other change rewrites only the segment holding the changed task.
+ * A full save keeps the segments as they are and rewrites only those whose tasks changed.
+ * Rewritten segments are always written to new files, and the manifest is replaced in one
+ * step to switch over to them, so a crash at any point leaves either the old list or the
+ * new one. Segment files the manifest no longer lists are deleted after the switch, or on
+ * the next load if the program stopped before that.
+ *
+ * <p>Manifest lines look like {@code segment-00000012.txt 8192}: the file name, then the
+ * number of tasks it holds. Loading reads no more than that many tasks from each segment,
+ * so a task appended just before a crash, while the manifest still had the old count,
+ * is dropped.
+ */
+public class SegmentedStorage extends Storage {
+    /** System property overriding the number of tasks per segment. */
+    public static final String SEGMENT_SIZE_PROPERTY = "mrducky.segments.size";
+    private static final int DEFAULT_SEGMENT_SIZE = 8192;
+    private static final String MANIFEST_NAME = "manifest";
+    private static final String MANIFEST_HEADER = "# mrducky segments 1";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".txt";
+    private static final Logger logger = Logger.getLogger(SegmentedStorage.class.getName());
+
+    private final Path directory;
+    private final Path legacyPath;
+    private final int segmentSize;
+    // Segments as they are on disk, in list order
+    private List<Segment> segments = new ArrayList<>();
+    private long nextSegmentId;
+
+    /**
+     * Creates a segmented storage handler that converts the given text file on first load
+     * if the segment directory does not exist yet.
+     *
+     * @param directory Directory holding the manifest and segment files.
+     * @param legacyPath Path to a text data file to import, or null.
+     */
+    public SegmentedStorage(Path directory, Path legacyPath) {
+        this(directory, legacyPath, Integer.getInteger(SEGMENT_SIZE_PROPERTY, DEFAULT_SEGMENT_SIZE));
+    }
+
+    /**
+     * Creates a segmented storage handler with the given number of tasks per segment.
+     *
+     * @param directory Directory holding the manifest and segment files.
+     * @param legacyPath Path to a text data file to import, or null.
+     * @param segmentSize Most tasks a segment holds.
+     */
+    public SegmentedStorage(Path directory, Path legacyPath, int segmentSize) {
+        super(directory.resolve(MANIFEST_NAME));
+        assert segmentSize > 0 : "Segment size must be positive";
+        this.directory = directory;
+        this.legacyPath = legacyPath;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns tasks from every segment, parsed in parallel and joined in manifest order.
+     *
+     * @return List of tasks loaded from disk.
+     */
+    @Override
+    public synchronized List<Task> load() throws MrDuckyException {
+        segments = new ArrayList<>();
+        nextSegmentId = 0;
+        if (!Files.exists(getFilePath())) {
+            if (legacyPath != null && Files.exists(legacyPath)) {
+                List<Task> tasks = new Storage(legacyPath).load();
+                save(tasks);
+                return tasks;
+            }
+            return new ArrayList<>();
+        }
+        try {
+            List<String> names = new ArrayList<>();
+            List<Integer> counts = new ArrayList<>();
+            int total = 0;
+            for (String line : Files.readAllLines(getFilePath())) {
+                String[] fields = line.trim().split(" ");
+                if (line.startsWith("#") || fields.length != 2) {
+                    continue;
+                }
+                names.add(fields[0]);
+                counts.add(Integer.parseInt(fields[1]));
+                total += counts.get(counts.size() - 1);
+                nextSegmentId = Math.max(nextSegmentId, parseSegmentId(fields[0]) + 1);
+            }
+            List<Future<List<Task>>> parses = new ArrayList<>(names.size());
+            for (String name : names) {
+                parses.add(ForkJoinPool.commonPool().submit(() -> readSegment(directory.resolve(name))));
+            }
+            List<Task> tasks = new ArrayList<>(total);
+            for (int i = 0; i < names.size(); i++) {
+                List<Task> part = parses.get(i).get();
+                boolean hasUnlistedTasks = part.size() > counts.get(i);
+                if (hasUnlistedTasks) {
+                    part = new ArrayList<>(part.subList(0, counts.get(i)));
+                }
+                tasks.addAll(part);
+                // The file is no longer exactly what it holds, so it must be rewritten rather than appended to
+                segments.add(new Segment(names.get(i), part, !hasUnlistedTasks));
+            }
+            deleteSegmentsNotIn(segments);
+            return tasks;
+        } catch (IOException | NumberFormatException | ExecutionException e) {
+            segments = new ArrayList<>();
+            logger.log(Level.WARNING, "Could not read data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not read data file: " + getFilePath());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MrDuckyException("Could not read data file: " + getFilePath());
+        }
+    }
+
+    /**
+     * Saves the given tasks. Segments whose tasks are all still there, unchanged and in the
+     * same order, are kept as they are. The tasks between them, which were added or were in
+     * changed segments, go into new segments of at most the segment size, written in parallel.
+     * So a change in one place rewrites the segments around it, not every later one.
+     *
+     * @param tasks Tasks to save.
+     */
+    @Override
+    public synchronized void save(List<Task> tasks) throws MrDuckyException {
+        Map<Task, Integer> positions = new IdentityHashMap<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            positions.put(tasks.get(i), i);
+        }
+        List<Segment> updated = new ArrayList<>();
+        List<Segment> changed = new ArrayList<>();
+        int next = 0;
+        for (Segment segment : segments) {
+            Integer start = segment.tasks.isEmpty() ? null : positions.get(segment.tasks.get(0));
+            if (start == null || start < next || start + segment.tasks.size() > tasks.size()
+                    || !segment.holds(tasks.subList(start, start + segment.tasks.size()))) {
+                continue;
+            }
+            addSegments(tasks.subList(next, start), updated, changed);
+            updated.add(segment);
+            next = start + segment.tasks.size();
+        }
+        addSegments(tasks.subList(next, tasks.size()), updated, changed);
+        if (changed.isEmpty() && updated.size() == segments.size()) {
+            return;
+        }
+        writeSegments(changed, updated);
+    }
+
+    /**
+     * Appends the new task to the last segment, or starts a new segment if that one is full.
+     *
+     * @param tasks All tasks, including the new one.
+     * @param task The task that was added.
+     */
+    @Override
+    public synchronized void saveAdded(List<Task> tasks, Task task) throws MrDuckyException {
+        if (trackedSize() != tasks.size() - 1) {
+            save(tasks);
+            return;
+        }
+        int last = segments.size() - 1;
+        if (last < 0 || segments.get(last).tasks.size() >= segmentSize) {
+            replaceSegments(segments.size(), 0, List.of(task));
+        } else if (!segments.get(last).isAppendable) {
+            List<Task> part = new ArrayList<>(segments.get(last).tasks);
+            part.add(task);
+            replaceSegments(last, 1, part);
+        } else {
+            appendToLastSegment(task);
+        }
+    }
+
+    /**
+     * Rewrites the segment holding the marked or unmarked task.
+     *
+     * @param tasks All tasks.
+     * @param index Zero-based index of the task that was marked or unmarked.
+     */
+    @Override
+    public synchronized void saveUpdated(List<Task> tasks, int index) throws MrDuckyException {
+        if (trackedSize() != tasks.size()) {
+            save(tasks);
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            int size = segments.get(i).tasks.size();
+            if (index < start + size) {
+                replaceSegments(i, 1, new ArrayList<>(tasks.subList(start, start + size)));
+                return;
+            }
+            start += size;
+        }
+    }
+
+    /**
+     * Rewrites the segment that held the removed task, or drops it if it is now empty.
+     *
+     * @param tasks All remaining tasks.
+     * @param index Zero-based index the removed task used to have.
+     */
+    @Override
+    public synchronized void saveDeleted(List<Task> tasks, int index) throws MrDuckyException {
+        if (trackedSize() != tasks.size() + 1) {
+            save(tasks);
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            int size = segments.get(i).tasks.size();
+            if (index < start + size) {
+                List<Task> part = new ArrayList<>(tasks.subList(start, start + size - 1));
+                replaceSegments(i, 1, part.isEmpty() ? null : part);
+                return;
+            }
+            start += size;
+        }
+    }
+
+    /**
+     * Returns the number of segment files the manifest lists.
+     *
+     * @return Number of segments.
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    private int trackedSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.tasks.size();
+        }
+        return size;
+    }
+
+    /**
+     * Splits the tasks into new segments of at most the segment size.
+     */
+    private void addSegments(List<Task> part, List<Segment> updated, List<Segment> changed) {
+        for (int start = 0; start < part.size(); start += segmentSize) {
+            Segment segment = new Segment(nextSegmentName(),
+                    new ArrayList<>(part.subList(start, Math.min(part.size(), start + segmentSize))));
+            updated.add(segment);
+            changed.add(segment);
+        }
+    }
+
+    /**
+     * Appends the task's line to the last segment file, then writes the manifest with its new count.
+     */
+    private void appendToLastSegment(Task task) throws MrDuckyException {
+        int last = segments.size() - 1;
+        Segment segment = segments.get(last);
+        List<Task> part = new ArrayList<>(segment.tasks.size() + 1);
+        part.addAll(segment.tasks);
+        part.add(task);
+        List<Segment> updated = new ArrayList<>(segments);
+        updated.set(last, new Segment(segment.name, part, true));
+        try {
+            appendBytes(directory.resolve(segment.name),
+                    (formatTask(task) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            writeManifest(updated);
+            segments = updated;
+        } catch (IOException e) {
+            // The append may have got through without the manifest, so the file is rewritten next time
+            segments.set(last, new Segment(segment.name, segment.tasks, false));
+            logger.log(Level.WARNING, "Could not write to data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not write to data file: " + getFilePath());
+        }
+    }
+
+    /**
+     * Replaces {@code count} segments starting at {@code index} with one segment holding the
+     * given tasks, or with nothing if the tasks are null.
+     */
+    private void replaceSegments(int index, int count, List<Task> part) throws MrDuckyException {
+        List<Segment> updated = new ArrayList<>(segments.subList(0, index));
+        List<Segment> changed = new ArrayList<>();
+        if (part != null) {
+            Segment segment = new Segment(nextSegmentName(), part);
+            updated.add(segment);
+            changed.add(segment);
+        }
+        updated.addAll(segments.subList(index + count, segments.size()));
+        writeSegments(changed, updated);
+    }
+
+    /**
+     * Writes the changed segments in parallel, then switches the manifest over to the updated
+     * list and deletes the segment files it no longer lists.
+     */
+    private void writeSegments(List<Segment> changed, List<Segment> updated) throws MrDuckyException {
+        try {
+            List<Future<Void>> writes = new ArrayList<>(changed.size());
+            for (Segment segment : changed) {
+                writes.add(ForkJoinPool.commonPool().submit(() -> {
+                    writeLines(directory.resolve(segment.name), segment.format());
+                    return null;
+                }));
+            }
+            for (Future<Void> write : writes) {
+                write.get();
+            }
+            writeManifest(updated);
+            segments = updated;
+            deleteSegmentsNotIn(updated);
+        } catch (IOException | ExecutionException e) {
+            logger.log(Level.WARNING, "Could not write to data file: " + getFilePath(), e);
+            throw new MrDuckyException("Could not write to data file: " + getFilePath());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MrDuckyException("Could not write to data file: " + getFilePath());
+        }
+    }
+
+    private void writeManifest(List<Segment> updated) throws IOException {
+        List<String> manifest = new ArrayList<>(updated.size() + 1);
+        manifest.add(MANIFEST_HEADER);
+        for (Segment segment : updated) {
+            manifest.add(segment.name + " " + segment.tasks.size());
+        }
+        writeLines(getFilePath(), manifest);
+    }
+
+    private void deleteSegmentsNotIn(List<Segment> kept) throws IOException {
+        Set<String> keptNames = new HashSet<>();
+        for (Segment segment : kept) {
+            keptNames.add(segment.name);
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                if (!keptNames.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static List<Task> readSegment(Path file) throws IOException {
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        List<Task> tasks = new ArrayList<>();
+        // Parsers keep scratch space, so each segment gets its own
+        new TaskLineParser().parseAll(content, tasks);
+        return tasks;
+    }
+
+    private String nextSegmentName() {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX);
+    }
+
+    private static long parseSegmentId(String name) {
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * One segment file and the tasks it holds, with each task's version when it was written.
+     */
+    private class Segment {
+        private final String name;
+        private final List<Task> tasks;
+        private final long[] versions;
+        // Whether the file holds exactly these tasks and nothing after them
+        private final boolean isAppendable;
+
+        Segment(String name, List<Task> tasks) {
+            this(name, tasks, true);
+        }
+
+        Segment(String name, List<Task> tasks, boolean isAppendable) {
+            this.name = name;
+            this.tasks = tasks;
+            this.isAppendable = isAppendable;
+            this.versions = new long[tasks.size()];
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = tasks.get(i).getVersion();
+            }
+        }
+
+        /**
+         * Returns whether the segment already holds exactly these tasks, none changed since.
+         */
+        boolean holds(List<Task> part) {
+            if (part.size() != tasks.size()) {
+                return false;
+            }
+            for (int i = 0; i < versions.length; i++) {
+                if (part.get(i) != tasks.get(i) || part.get(i).getVersion() != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<String> format() {
+            List<String> lines = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                lines.add(formatTask(task));
+            }
+            return lines;
+        }
+    }
+}
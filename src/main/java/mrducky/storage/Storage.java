@@ -1,9 +1,18 @@
 package mrducky.storage;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -13,14 +22,35 @@ import mrducky.exception.MrDuckyException;
 import mrducky.task.Deadline;
 import mrducky.task.Event;
 import mrducky.task.Task;
+import mrducky.task.TaskList;
 import mrducky.task.ToDo;
 
 /**
  * Stores and loads tasks to and from disk.
+ *
+ * <p>Every write goes through {@link #writeLines}, {@link #writeBytes} or {@link #appendBytes},
+ * which follow the storage's {@link Durability} and record the time taken in its {@link SaveMetrics}.
+ *
+ * <p>Each line starts with the task type and its done status at a fixed column. The storage
+ * remembers where each task's line starts and which version of the task it wrote, so marking
+ * a task overwrites one byte and adding a task appends one line. Only deletes, and lists
+ * that were replaced wholesale, rewrite the whole file.
  */
 public class Storage {
-    private final Path filePath;
+    /**
+     * System property selecting the storage mode ({@code plain}, {@code journal}, {@code binary},
+     * {@code segmented} or {@code lazy}).
+     */
+    public static final String MODE_PROPERTY = "mrducky.storage";
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    // Lines start "T | 1 | ", so the done status is always the fifth byte
+    private static final int DONE_COLUMN = 4;
+    private static final int LINE_SEPARATOR_BYTES = System.lineSeparator().length();
     private static final Logger logger = Logger.getLogger(Storage.class.getName());
+    private final Path filePath;
+    private final SaveMetrics saveMetrics = new SaveMetrics();
+    private final WrittenRecords records = new WrittenRecords();
+    private volatile Durability durability = Durability.OS;
 
     /**
      * Creates a storage handler that reads and writes to the given file path.
@@ -31,25 +61,117 @@ public class Storage {
         this.filePath = filePath;
     }
 
+    /**
+     * Returns a storage handler for the given file path, using the mode chosen by the
+     * {@value #MODE_PROPERTY} system property and the durability chosen by the
+     * {@value Durability#PROPERTY} system property. Writes are group-committed when the
+     * {@value GroupCommitStorage#ENABLED_PROPERTY} system property is true.
+     *
+     * @param filePath Path to the data file.
+     * @return Storage handler for the configured mode.
+     */
+    public static Storage open(Path filePath) {
+        String mode = System.getProperty(MODE_PROPERTY, "plain");
+        Storage storage;
+        if (mode.equalsIgnoreCase("journal")) {
+            storage = new JournaledStorage(filePath);
+        } else if (mode.equalsIgnoreCase("binary")) {
+            // The binary file lives next to the text file and is converted from it on first use
+            storage = new BinaryStorage(filePath.resolveSibling(baseName(filePath) + ".bin"), filePath);
+        } else if (mode.equalsIgnoreCase("segmented")) {
+            // Likewise for the segment directory
+            storage = new SegmentedStorage(filePath.resolveSibling(baseName(filePath) + ".segments"), filePath);
+        } else if (mode.equalsIgnoreCase("lazy")) {
+            storage = new LazyStorage(filePath);
+        } else {
+            storage = new Storage(filePath);
+        }
+        storage.setDurability(Durability.fromSystemProperty());
+        if (Boolean.getBoolean(GroupCommitStorage.ENABLED_PROPERTY)) {
+            storage = new GroupCommitStorage(storage);
+        }
+        return storage;
+    }
+
+    private static String baseName(Path filePath) {
+        String name = filePath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Returns the path of the data file.
+     *
+     * @return Path to the data file.
+     */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Sets how later writes protect the data file against crashes.
+     *
+     * @param durability Durability for later writes.
+     */
+    public void setDurability(Durability durability) {
+        assert durability != null : "Durability cannot be null";
+        this.durability = durability;
+    }
+
+    public SaveMetrics getSaveMetrics() {
+        return saveMetrics;
+    }
+
     /**
      * Returns tasks loaded from the data file.
      *
      * @return List of tasks loaded from disk.
      */
-    public List<Task> load() throws MrDuckyException {
+    public synchronized List<Task> load() throws MrDuckyException {
         // If file/folder doesn't exist, create new ArrayList<>()
         List<Task> tasks = new ArrayList<>();
+        records.clear();
         if (!Files.exists(filePath)) {
             return tasks;
         }
-        // Read lines
+        // Read the whole file once and scan it line by line
         try {
-            List<String> lines = Files.readAllLines(filePath);
-            for (String line : lines) {
-                Task task = parseLine(line);
+            byte[] bytes = Files.readAllBytes(filePath);
+            String content = new String(bytes, StandardCharsets.UTF_8);
+            TaskLineParser parser = new TaskLineParser();
+            // Byte offsets match char offsets unless the file has multi-byte characters
+            boolean isAscii = bytes.length == content.length();
+            long lineOffset = 0;
+            records.start(bytes.length / 32);
+            int lineStart = 0;
+            int length = content.length();
+            while (lineStart < length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && content.charAt(lineEnd) != '\n' && content.charAt(lineEnd) != '\r') {
+                    lineEnd++;
+                }
+                Task task = parser.parse(content, lineStart, lineEnd);
                 if (task != null) {
                     tasks.add(task);
+                    records.add(task, task.getVersion(), lineOffset);
+                }
+                int nextStart = lineEnd + 1;
+                if (lineEnd < length && content.charAt(lineEnd) == '\r'
+                        && nextStart < length && content.charAt(nextStart) == '\n') {
+                    nextStart++;
                 }
+                nextStart = Math.min(nextStart, length);
+                lineOffset += isAscii ? nextStart - lineStart : utf8Length(content, lineStart, nextStart);
+                lineStart = nextStart;
+            }
+            records.setEnd(lineOffset);
+            if (!hasPatchableLines(bytes, lineOffset)) {
+                // Written by hand or by an older version, so the first change rewrites the file
+                records.clear();
             }
         } catch (IOException e) {
             // Handle exception
@@ -59,82 +181,418 @@ public class Storage {
         return tasks;
     }
 
+    /**
+     * Returns a task list holding the tasks of the data file.
+     * Storage modes that can read tasks on demand return a list that reads each task when first used.
+     *
+     * @return Task list of the tasks on disk.
+     */
+    public TaskList loadTaskList() throws MrDuckyException {
+        return new TaskList(load());
+    }
+
     /**
      * Saves the given tasks to the data file.
+     * If the file already holds the same tasks in the same order, possibly followed by new ones,
+     * only the changed done statuses are overwritten and the new tasks appended. Otherwise the
+     * whole file is rewritten, in one step unless the durability is {@link Durability#NONE},
+     * so it holds either all the old tasks or all the new ones.
      *
      * @param tasks Tasks to save.
      */
-    public void save(List<Task> tasks) throws MrDuckyException {
-        // Ensure parent folder exists
+    public synchronized void save(List<Task> tasks) throws MrDuckyException {
+        if (records.isPrefixOf(tasks)) {
+            writeChanges(tasks, 0, records.size());
+            return;
+        }
         try {
-            Path parentDir = filePath.getParent();
-            if (parentDir != null) {
-                Files.createDirectories(parentDir);
-            }
-
+            records.start(tasks.size());
             // Create empty list to hold lines
             List<String> lines = new ArrayList<>();
+            long offset = 0;
             for (Task task : tasks) {
+                // Read the version first, so a mark made while formatting is written again next time
+                long version = task.getVersion();
                 // Convert each Task to a line
                 String line = formatTask(task);
                 lines.add(line);
+                records.add(task, version, offset);
+                offset += utf8Length(line, 0, line.length()) + LINE_SEPARATOR_BYTES;
+            }
+            records.setEnd(offset);
+            writeLines(filePath, lines);
+        } catch (IOException e) {
+            records.clear();
+            logger.log(Level.WARNING, "Could not write to data file: " + filePath, e);
+            throw new MrDuckyException("Could not write to data file: " + filePath);
+        }
+    }
+
+    /**
+     * Persists a task that was just appended to the given tasks.
+     * Appends the task's record when the file is known to hold every earlier task.
+     *
+     * @param tasks All tasks, including the new one.
+     * @param task The task that was added.
+     */
+    public synchronized void saveAdded(List<Task> tasks, Task task) throws MrDuckyException {
+        if (records.isNextRecord(tasks, task)) {
+            writeChanges(tasks, 0, 0);
+        } else {
+            save(tasks);
+        }
+    }
+
+    /**
+     * Persists a change to the done status of the task at the given index.
+     * Overwrites only that task's done status when the file is known to hold the task there.
+     *
+     * @param tasks All tasks.
+     * @param index Zero-based index of the task that was marked or unmarked.
+     */
+    public synchronized void saveUpdated(List<Task> tasks, int index) throws MrDuckyException {
+        if (records.isRecordedAt(tasks, index)) {
+            writeChanges(tasks, index, index + 1);
+        } else {
+            save(tasks);
+        }
+    }
+
+    /**
+     * Persists the removal of the task that was at the given index.
+     *
+     * @param tasks All remaining tasks.
+     * @param index Zero-based index the removed task used to have.
+     */
+    public void saveDeleted(List<Task> tasks, int index) throws MrDuckyException {
+        save(tasks);
+    }
+
+    /**
+     * Makes sure every change handed to this storage so far has been written to disk.
+     * Plain storage writes synchronously, so there is nothing left to do.
+     */
+    public void flush() throws MrDuckyException {
+    }
+
+    /**
+     * Sets the object that callers hold while they change the task list and save the change.
+     * Storage that writes buffered changes on its own holds it too while it reads the tasks.
+     * Plain storage only writes when it is called, so it ignores the lock.
+     *
+     * @param lock Lock that guards changes to the task list.
+     */
+    public void setMutationLock(Object lock) {
+    }
+
+    /**
+     * Writes out anything still held back and releases what the storage holds on to.
+     * The storage must not be used afterwards.
+     */
+    public void close() throws MrDuckyException {
+        flush();
+    }
+
+    WrittenRecords getWrittenRecords() {
+        return records;
+    }
+
+    /**
+     * Overwrites the done status of recorded tasks from {@code from} to {@code to} whose version
+     * has changed, then appends the tasks past the last record. Clears the records if the write
+     * fails, so the next save rewrites the whole file.
+     *
+     * @param tasks All tasks, starting with the recorded ones.
+     * @param from Position of the first recorded task to check.
+     * @param to Position after the last recorded task to check.
+     */
+    void writeChanges(List<Task> tasks, int from, int to) throws MrDuckyException {
+        try {
+            long[] positions = new long[to - from];
+            byte[] values = new byte[to - from];
+            int changed = 0;
+            for (int i = from; i < to; i++) {
+                Task task = records.taskAt(i);
+                long version = task.getVersion();
+                if (version != records.versionAt(i)) {
+                    positions[changed] = records.offsetAt(i) + getDoneOffset();
+                    values[changed] = encodeDone(task.isDone());
+                    changed++;
+                    records.setVersion(i, version);
+                }
+            }
+            if (changed > 0) {
+                patchBytes(filePath, positions, values, changed);
+            }
+            if (tasks.size() > records.size()) {
+                ByteArrayOutputStream appended = new ByteArrayOutputStream();
+                long offset = records.getEnd();
+                for (int i = records.size(); i < tasks.size(); i++) {
+                    Task task = tasks.get(i);
+                    long version = task.getVersion();
+                    byte[] record = encodeRecord(task);
+                    records.add(task, version, offset);
+                    appended.write(record);
+                    offset += record.length;
+                }
+                appendBytes(filePath, appended.toByteArray());
+                records.setEnd(offset);
+                afterAppend(records.size());
             }
-            // Write lines to file
-            Files.write(filePath, lines);
         } catch (IOException e) {
+            records.clear();
             logger.log(Level.WARNING, "Could not write to data file: " + filePath, e);
             throw new MrDuckyException("Could not write to data file: " + filePath);
         }
     }
 
+    /**
+     * Returns the offset of the done status within a record.
+     *
+     * @return Byte offset from the start of the record.
+     */
+    int getDoneOffset() {
+        return DONE_COLUMN;
+    }
+
+    /**
+     * Returns the byte that stores the given done status.
+     *
+     * @param isDone Done status.
+     * @return Encoded status.
+     */
+    byte encodeDone(boolean isDone) {
+        return (byte) (isDone ? '1' : '0');
+    }
+
+    /**
+     * Returns the bytes of one record, as appended to the file.
+     *
+     * @param task Task to encode.
+     * @return Encoded record.
+     */
+    byte[] encodeRecord(Task task) {
+        return (formatTask(task) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Called after records were appended, for formats that also keep a record count.
+     *
+     * @param recordCount Number of records now in the file.
+     */
+    void afterAppend(int recordCount) throws IOException {
+    }
+
+    /**
+     * Overwrites single bytes of the target file in place, forcing them to the disk if the
+     * durability is {@link Durability#FSYNC}. A one-byte write cannot be torn, so the file
+     * always holds either the old or the new value.
+     *
+     * @param target File to patch.
+     * @param positions Byte offsets to overwrite.
+     * @param values New value for each offset.
+     * @param count Number of offsets to overwrite.
+     */
+    void patchBytes(Path target, long[] positions, byte[] values, int count) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            for (int i = 0; i < count; i++) {
+                buffer.clear();
+                buffer.put(0, values[i]);
+                channel.write(buffer, positions[i]);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+            }
+        }
+        saveMetrics.record(count, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes the given lines as the new content of the target file, following the durability.
+     *
+     * @param target File to write.
+     * @param lines Lines to write, each followed by the platform line separator.
+     */
+    void writeLines(Path target, List<String> lines) throws IOException {
+        writeFile(target, channel -> {
+            Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8),
+                    WRITE_BUFFER_CHARS);
+            for (String line : lines) {
+                writer.write(line);
+                writer.write(System.lineSeparator());
+            }
+            // Flushed but not closed, so the channel stays open to be forced
+            writer.flush();
+        });
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer as the new content of the target file, following the durability.
+     *
+     * @param target File to write.
+     * @param buffer Bytes to write.
+     */
+    void writeBytes(Path target, ByteBuffer buffer) throws IOException {
+        writeFile(target, channel -> {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * Appends the bytes to the target file, forcing them to the disk if the durability is
+     * {@link Durability#FSYNC}.
+     *
+     * @param target File to append to.
+     * @param bytes Bytes to append.
+     */
+    void appendBytes(Path target, byte[] bytes) throws IOException {
+        long start = System.nanoTime();
+        createParentDirectories(target);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+            }
+        }
+        saveMetrics.record(bytes.length, System.nanoTime() - start);
+    }
+
+    private void writeFile(Path target, ContentWriter writer) throws IOException {
+        long start = System.nanoTime();
+        Durability policy = durability;
+        createParentDirectories(target);
+        Path written = policy == Durability.NONE ? target : tempFileFor(target);
+        long byteCount;
+        try (FileChannel channel = FileChannel.open(written, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writer.writeTo(channel);
+            byteCount = channel.position();
+            if (policy == Durability.FSYNC) {
+                channel.force(true);
+            }
+        }
+        if (policy != Durability.NONE) {
+            moveIntoPlace(written, target);
+            if (policy == Durability.FSYNC) {
+                forceDirectory(target.toAbsolutePath().getParent());
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        saveMetrics.record(byteCount, nanos);
+        logger.fine(() -> "Wrote " + byteCount + " bytes to " + target + " in " + nanos / 1000 + " us ("
+                + policy + ")");
+    }
+
+    /**
+     * Returns whether every recorded line has its done status at the expected column and the
+     * file ends with a line break, so changes can be written without rewriting the file.
+     */
+    private boolean hasPatchableLines(byte[] bytes, long end) {
+        if (end != bytes.length || (bytes.length > 0 && bytes[bytes.length - 1] != '\n'
+                && bytes[bytes.length - 1] != '\r')) {
+            return false;
+        }
+        for (int i = 0; i < records.size(); i++) {
+            long offset = records.offsetAt(i);
+            if (offset + DONE_COLUMN + 1 >= bytes.length) {
+                return false;
+            }
+            int at = (int) offset;
+            byte done = bytes[at + DONE_COLUMN];
+            if (bytes[at + 1] != ' ' || bytes[at + 2] != '|' || bytes[at + 3] != ' '
+                    || (done != '0' && done != '1') || bytes[at + DONE_COLUMN + 1] != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes the characters from {@code start} to {@code end} take in UTF-8.
+     */
+    static long utf8Length(CharSequence text, int start, int end) {
+        long bytes = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static void createParentDirectories(Path target) throws IOException {
+        Path parentDir = target.getParent();
+        if (parentDir != null) {
+            Files.createDirectories(parentDir);
+        }
+    }
+
+    /**
+     * Forces the directory entry changed by a rename to the disk, so the rename survives a power cut.
+     * Some platforms cannot open a directory for this, and there the rename is left to the OS.
+     */
+    private static void forceDirectory(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Could not force directory " + dir, e);
+        }
+    }
+
+    /**
+     * Returns the temporary file a new version of the given file is written to before
+     * {@link #moveIntoPlace} swaps it in.
+     */
+    static Path tempFileFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
 
-    private Task parseLine(String line) {
+    /**
+     * Replaces the target with the fully written temporary file, atomically where the file
+     * system allows it.
+     */
+    static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the content of a file to an open channel.
+     */
+    private interface ContentWriter {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    Task parseLine(String line) {
         // Turn line into Task object (ToDo, Deadline, Event)
-        // Split line by " | " (type | isDone | description | ... )
-        // e.g. D | 1 | return book | June 6th
-        String[] parts = line.split("\\s*\\|\\s*");
-
-        if (parts.length < 3) {
-            // Invalid line format, handle accordingly
-            return null;
-        }
-
-        // Determine type based on first part
-        // T - new ToDo(description)
-        // D - new Deadline(description | due)
-        // E - new Event(description | from | to)
-        String type = parts[0];
-        boolean isDone = parts[1].equals("1");
-        String description = parts[2];
-
-        Task task;
-        switch (type) {
-        case "T":
-            task = new ToDo(description);
-            break;
-        case "D":
-            if (parts.length < 4) {
-                return null; // Invalid Deadline format
-            }
-            LocalDateTime dueDate = LocalDateTime.parse(parts[3]);
-            task = new Deadline(description, dueDate);
-            break;
-        case "E":
-            if (parts.length < 5) {
-                return null; // Invalid Event format
-            }
-            LocalDateTime from = LocalDateTime.parse(parts[3]);
-            LocalDateTime to = LocalDateTime.parse(parts[4]);
-            task = new Event(description, from, to);
-            break;
-        default:
-            return null; // Unknown task type
-        }
-        task.setDone(isDone);
-        return task;
-    }
-
-    private String formatTask(Task task) {
+        // Fields are separated by " | " (type | isDone | description | ... )
+        // e.g. D | 1 | return book | 2019-12-02T18:00
+        return new TaskLineParser().parse(line);
+    }
+
+    String formatTask(Task task) {
         String done = task.isDone() ? "1" : "0";
 
         if (task instanceof ToDo) {
@@ -0,0 +1,192 @@
+package mrducky.storage;
+
+import java.time.DateTimeException;
+import java.util.List;
+
+import mrducky.date.DateTimes;
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Parses lines of the pipe-delimited text format in a single pass.
+ *
+ * <p>Fields are split exactly like {@code line.split("\\s*\\|\\s*")}: whitespace next to
+ * a {@code |} is dropped, and trailing empty fields do not count. The scanner records
+ * field boundaries instead of building a {@code String[]}, and reads ISO timestamps
+ * digit by digit. The only string it creates is the task description. Malformed lines
+ * give null, as they always have. A parser reuses its scratch space between lines, so
+ * each thread needs its own instance.
+ */
+public final class TaskLineParser {
+    private static final int MAX_FIELDS = 5;
+
+    // Start and end offsets of the first MAX_FIELDS fields, trimmed like the regex split
+    private final int[] bounds = new int[MAX_FIELDS * 2];
+
+    /**
+     * Returns the task stored on the given line, or null if the line is malformed.
+     *
+     * @param line Line in the text format.
+     * @return Parsed task, or null.
+     */
+    public Task parse(CharSequence line) {
+        return parse(line, 0, line.length());
+    }
+
+    /**
+     * Parses every line of the given text, adding the tasks to the list in order.
+     * Lines end at {@code \n}, {@code \r} or {@code \r\n}, and malformed lines are skipped.
+     *
+     * @param text Text in the text format.
+     * @param tasks List the parsed tasks are added to.
+     */
+    public void parseAll(CharSequence text, List<Task> tasks) {
+        int lineStart = 0;
+        int length = text.length();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n' && text.charAt(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            Task task = parse(text, lineStart, lineEnd);
+            if (task != null) {
+                tasks.add(task);
+            }
+            lineStart = lineEnd + 1;
+            if (lineEnd < length && text.charAt(lineEnd) == '\r'
+                    && lineStart < length && text.charAt(lineStart) == '\n') {
+                lineStart++;
+            }
+        }
+    }
+
+    /**
+     * Returns the task stored in the given region of a larger text, or null if it is malformed.
+     *
+     * @param text Text holding the line.
+     * @param start Index of the first character of the line.
+     * @param end Index just past the last character of the line, excluding the terminator.
+     * @return Parsed task, or null.
+     */
+    public Task parse(CharSequence text, int start, int end) {
+        int fieldCount = scanFields(text, start, end);
+        if (fieldCount < 3) {
+            return null;
+        }
+        int typeLength = bounds[1] - bounds[0];
+        if (typeLength != 1) {
+            return null;
+        }
+        char type = text.charAt(bounds[0]);
+        boolean isDone = bounds[3] - bounds[2] == 1 && text.charAt(bounds[2]) == '1';
+        String description = substring(text, bounds[4], bounds[5]);
+
+        Task task;
+        try {
+            switch (type) {
+            case 'T':
+                task = new ToDo(description);
+                break;
+            case 'D':
+                if (fieldCount < 4) {
+                    return null; // Invalid Deadline format
+                }
+                task = new Deadline(description, DateTimes.parseIso(text, bounds[6], bounds[7]));
+                break;
+            case 'E':
+                if (fieldCount < 5) {
+                    return null; // Invalid Event format
+                }
+                task = new Event(description, DateTimes.parseIso(text, bounds[6], bounds[7]),
+                        DateTimes.parseIso(text, bounds[8], bounds[9]));
+                break;
+            default:
+                return null; // Unknown task type
+            }
+        } catch (DateTimeException e) {
+            return null; // Unreadable timestamp
+        }
+        task.setDone(isDone);
+        return task;
+    }
+
+    /**
+     * Returns whether {@link #parse(CharSequence, int, int)} is certain to give a task for the
+     * given region, without creating the task. Timestamps in forms other than the ones this
+     * program writes give false.
+     *
+     * @param text Text holding the line.
+     * @param start Index of the first character of the line.
+     * @param end Index just past the last character of the line, excluding the terminator.
+     * @return True if the line parses.
+     */
+    public boolean isReadable(CharSequence text, int start, int end) {
+        int fieldCount = scanFields(text, start, end);
+        if (fieldCount < 3 || bounds[1] - bounds[0] != 1) {
+            return false;
+        }
+        switch (text.charAt(bounds[0])) {
+        case 'T':
+            return true;
+        case 'D':
+            return fieldCount >= 4 && DateTimes.isIso(text, bounds[6], bounds[7]);
+        case 'E':
+            return fieldCount >= 5 && DateTimes.isIso(text, bounds[6], bounds[7])
+                    && DateTimes.isIso(text, bounds[8], bounds[9]);
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Finds field boundaries and returns the field count after dropping trailing empty fields.
+     */
+    private int scanFields(CharSequence text, int start, int end) {
+        int fieldCount = 0;
+        int field = 0;
+        int fieldStart = start;
+        int i = start;
+        while (true) {
+            int pipe = i;
+            while (pipe < end && text.charAt(pipe) != '|') {
+                pipe++;
+            }
+            int fieldEnd = pipe;
+            if (pipe < end) {
+                while (fieldEnd > fieldStart && isWhitespace(text.charAt(fieldEnd - 1))) {
+                    fieldEnd--;
+                }
+            }
+            if (field < MAX_FIELDS) {
+                bounds[field * 2] = fieldStart;
+                bounds[field * 2 + 1] = fieldEnd;
+            }
+            field++;
+            if (fieldEnd > fieldStart) {
+                fieldCount = field;
+            }
+            if (pipe >= end) {
+                return fieldCount;
+            }
+            i = pipe + 1;
+            while (i < end && isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            fieldStart = i;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        // Same set as the regex \s
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static String substring(CharSequence text, int start, int end) {
+        if (text instanceof String) {
+            return ((String) text).substring(start, end);
+        }
+        return text.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,158 @@
+package mrducky.storage;
+
+import java.util.Arrays;
+import java.util.List;
+
+import mrducky.task.Task;
+
+/**
+ * Remembers which task each record of a data file holds, where the record starts and
+ * which version of the task it was written from.
+ *
+ * <p>Storage modes with fixed places for the done status use this to change one record
+ * in place, or to append new ones, instead of rewriting the whole file. The records are
+ * only trusted after a full load or save has filled them in, and are cleared whenever
+ * the file may no longer match them.
+ */
+class WrittenRecords {
+    private static final int MIN_CAPACITY = 16;
+
+    private Task[] tasks = new Task[0];
+    private long[] versions = new long[0];
+    private long[] offsets = new long[0];
+    private int size;
+    private long end;
+    private boolean isValid;
+
+    /**
+     * Forgets every record, so the next save rewrites the whole file.
+     */
+    void clear() {
+        tasks = new Task[0];
+        versions = new long[0];
+        offsets = new long[0];
+        size = 0;
+        end = 0;
+        isValid = false;
+    }
+
+    /**
+     * Starts tracking a file that is being written or read from the beginning.
+     *
+     * @param expectedSize Number of records expected, used to size the arrays.
+     */
+    void start(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        tasks = new Task[capacity];
+        versions = new long[capacity];
+        offsets = new long[capacity];
+        size = 0;
+        end = 0;
+        isValid = true;
+    }
+
+    /**
+     * Records that the next record starts at the given offset and holds the given task.
+     *
+     * @param task Task in the record.
+     * @param version Version of the task the record was written from.
+     * @param offset Byte offset of the record in the file.
+     */
+    void add(Task task, long version, long offset) {
+        if (size == tasks.length) {
+            int capacity = Math.max(MIN_CAPACITY, size * 2);
+            tasks = Arrays.copyOf(tasks, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+        tasks[size] = task;
+        versions[size] = version;
+        offsets[size] = offset;
+        size++;
+    }
+
+    /**
+     * Returns whether the records can be trusted to match the file.
+     *
+     * @return True after a full load or save, until the next clear.
+     */
+    boolean isValid() {
+        return isValid;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Task taskAt(int index) {
+        return tasks[index];
+    }
+
+    long versionAt(int index) {
+        return versions[index];
+    }
+
+    long offsetAt(int index) {
+        return offsets[index];
+    }
+
+    void setVersion(int index, long version) {
+        versions[index] = version;
+    }
+
+    /**
+     * Returns the byte offset just past the last record, where appended records go.
+     *
+     * @return End of the records.
+     */
+    long getEnd() {
+        return end;
+    }
+
+    void setEnd(long end) {
+        this.end = end;
+    }
+
+    /**
+     * Returns whether the given tasks start with exactly the recorded tasks, in order.
+     * Tasks compare by identity, so a task that was deleted and replaced never matches.
+     *
+     * @param current Tasks about to be saved.
+     * @return True if only done statuses changed and tasks were appended since the records were made.
+     */
+    boolean isPrefixOf(List<Task> current) {
+        if (!isValid || current.size() < size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (current.get(i) != tasks[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the task just appended to the given tasks would be the next record,
+     * checked in constant time from the list's size and the last recorded task.
+     *
+     * @param current Tasks including the one just added.
+     * @param added Task that was added.
+     * @return True if the task can be appended to the file.
+     */
+    boolean isNextRecord(List<Task> current, Task added) {
+        return isValid && current.size() == size + 1 && current.get(size) == added
+                && (size == 0 || current.get(size - 1) == tasks[size - 1]);
+    }
+
+    /**
+     * Returns whether the task at the given position is the one recorded there.
+     *
+     * @param current Tasks about to be saved.
+     * @param index Position of the task.
+     * @return True if the record at that position can be patched in place.
+     */
+    boolean isRecordedAt(List<Task> current, int index) {
+        return isValid && index < size && index < current.size() && current.get(index) == tasks[index];
+    }
+}
@@ -1,15 +1,21 @@
 package mrducky.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
+
+import mrducky.date.DateTimes;
+
 /**
  * Represents a deadline task with a due time.
+ * The due time is kept as a count of seconds rather than as a date-time object, which would
+ * hold a date and a time object of its own, so large lists of deadlines take less memory.
  */
 public class Deadline extends Task {
-    private LocalDateTime dueDate;
+    private final long dueSecond;
 
     /**
      * Creates a deadline task with a description and due time.
+     * Fractions of a second are dropped, as in the binary data file.
      *
      * @param description Task description.
      * @param dueDate Due time for the task.
@@ -17,16 +23,29 @@ public class Deadline extends Task {
     public Deadline(String description, LocalDateTime dueDate) {
         super(description);
         assert dueDate != null : "Deadline due time cannot be null";
-        this.dueDate = dueDate;
+        this.dueSecond = dueDate.toEpochSecond(ZoneOffset.UTC);
     }
 
     public LocalDateTime getDueDate() {
-        return dueDate;
+        return LocalDateTime.ofEpochSecond(dueSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the due time as seconds since the epoch in UTC, without creating a date-time object.
+     */
+    long getDueSecond() {
+        return dueSecond;
+    }
+
+    @Override
+    Task copy() {
+        Task copy = new Deadline(getDescription(), getDueDate());
+        copy.setDone(isDone());
+        return copy;
     }
 
     @Override
-    public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
-        return "[D]" + super.toString() + " (by: " + dueDate.format(formatter) + ")";
+    protected String render(boolean done) {
+        return "[D]" + super.render(done) + " (by: " + DateTimes.formatDisplay(getDueDate()) + ")";
     }
 }
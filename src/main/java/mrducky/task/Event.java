@@ -1,17 +1,21 @@
 package mrducky.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
+
+import mrducky.date.DateTimes;
 
 /**
  * Represents an event task with a start and end time.
+ * Like a {@link Deadline}, the times are kept as counts of seconds to save memory.
  */
 public class Event extends Task {
-    private LocalDateTime fromTime;
-    private LocalDateTime toTime;
+    private final long fromSecond;
+    private final long toSecond;
 
     /**
      * Creates an event task with a description, start time, and end time.
+     * Fractions of a second are dropped, as in the binary data file.
      *
      * @param description Task description.
      * @param fromTime Start time of the event.
@@ -20,23 +24,42 @@ public class Event extends Task {
     public Event(String description, LocalDateTime fromTime, LocalDateTime toTime) {
         super(description);
         assert fromTime != null && toTime != null : "Event times cannot be null";
-        this.fromTime = fromTime;
-        this.toTime = toTime;
-}
-
+        this.fromSecond = fromTime.toEpochSecond(ZoneOffset.UTC);
+        this.toSecond = toTime.toEpochSecond(ZoneOffset.UTC);
     }
 
     public LocalDateTime getFromTime() {
-        return fromTime;
+        return LocalDateTime.ofEpochSecond(fromSecond, 0, ZoneOffset.UTC);
     }
 
     public LocalDateTime getToTime() {
-        return toTime;
+        return LocalDateTime.ofEpochSecond(toSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the start time as seconds since the epoch in UTC, without creating a date-time object.
+     */
+    long getFromSecond() {
+        return fromSecond;
+    }
+
+    /**
+     * Returns the end time as seconds since the epoch in UTC, without creating a date-time object.
+     */
+    long getToSecond() {
+        return toSecond;
+    }
+
+    @Override
+    Task copy() {
+        Task copy = new Event(getDescription(), getFromTime(), getToTime());
+        copy.setDone(isDone());
+        return copy;
     }
 
     @Override
-    public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
-        return "[E]" + super.toString() + " (from: " + fromTime.format(formatter) + " to: " + toTime.format(formatter) + ")";
+    protected String render(boolean done) {
+        return "[E]" + super.render(done) + " (from: " + DateTimes.formatDisplay(getFromTime())
+                + " to: " + DateTimes.formatDisplay(getToTime()) + ")";
     }
 }
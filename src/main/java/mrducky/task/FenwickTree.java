@@ -0,0 +1,80 @@
+package mrducky.task;
+
+/**
+ * Fenwick (binary indexed) tree counting live slots, used to map display positions to slots.
+ * Slots are zero-based and every slot holds a count of 0 or 1.
+ */
+class FenwickTree {
+    private int[] tree;
+    private int capacity;
+
+    /**
+     * Creates a tree over the given number of empty slots.
+     *
+     * @param capacity Number of slots.
+     */
+    FenwickTree(int capacity) {
+        this.capacity = capacity;
+        this.tree = new int[capacity + 1];
+    }
+
+    /**
+     * Returns the number of slots the tree covers.
+     *
+     * @return Slot capacity.
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Resets the tree to cover the given number of slots, the first {@code liveCount} of them live.
+     * Runs in linear time.
+     *
+     * @param newCapacity Number of slots.
+     * @param liveCount Number of leading slots holding a count of one.
+     */
+    void rebuild(int newCapacity, int liveCount) {
+        capacity = newCapacity;
+        tree = new int[newCapacity + 1];
+        for (int i = 1; i <= newCapacity; i++) {
+            if (i <= liveCount) {
+                tree[i] += 1;
+            }
+            int parent = i + (i & -i);
+            if (parent <= newCapacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Adds a delta to the count of the given slot.
+     *
+     * @param slot Zero-based slot.
+     * @param delta Amount to add.
+     */
+    void add(int slot, int delta) {
+        for (int i = slot + 1; i <= capacity; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the slot holding the k-th live entry.
+     *
+     * @param k One-based rank of the live entry.
+     * @return Zero-based slot.
+     */
+    int findKth(int k) {
+        int position = 0;
+        for (int step = Integer.highestOneBit(Math.max(capacity, 1)); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= capacity && tree[next] < k) {
+                position = next;
+                k -= tree[next];
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,165 @@
+package mrducky.task;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Interval tree over event times, used to find events overlapping a time range.
+ * Times are seconds since the epoch in UTC, as events store them.
+ *
+ * <p>This is a treap ordered by start time, with ties broken by an insertion number.
+ * Each node also stores the latest end time in its subtree, so whole subtrees that
+ * end before the query range are skipped. Inserts, removals and the search for the
+ * first match all take expected logarithmic time.
+ */
+class IntervalTree {
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Adds an interval.
+     *
+     * @param start Start of the interval.
+     * @param end End of the interval.
+     * @param sequence Insertion number that breaks ties between equal start times.
+     * @param task Task the interval belongs to.
+     */
+    void insert(long start, long end, long sequence, Task task) {
+        root = insert(root, new Node(start, end, sequence, task, random.nextInt()));
+    }
+
+    /**
+     * Removes the interval with the given start time and insertion number.
+     *
+     * @param start Start of the interval.
+     * @param sequence Insertion number given when the interval was added.
+     */
+    void remove(long start, long sequence) {
+        root = remove(root, start, sequence);
+    }
+
+    /**
+     * Adds every task whose interval overlaps [from, to] to the given list, by start time.
+     *
+     * @param from Start of the query range, inclusive.
+     * @param to End of the query range, inclusive.
+     * @param found List the overlapping tasks are added to.
+     */
+    void findOverlapping(long from, long to, List<Task> found) {
+        collect(root, from, to, found);
+    }
+
+    private static void collect(Node node, long from, long to, List<Task> found) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, found);
+        if (node.start > to) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (node.end >= from) {
+            found.add(node.task);
+        }
+        collect(node.right, from, to, found);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.sequence, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node remove(Node node, long start, long sequence) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, sequence, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, sequence);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, sequence);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = remove(node.right, start, sequence);
+        } else {
+            node = rotateLeft(node);
+            node.left = remove(node.left, start, sequence);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int compare(long start, long sequence, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(sequence, node.sequence);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    /**
+     * A tree node holding one interval and the latest end time in its subtree.
+     */
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final long sequence;
+        private final Task task;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long start, long end, long sequence, Task task, int priority) {
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.task = task;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
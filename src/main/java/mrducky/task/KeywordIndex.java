@@ -0,0 +1,136 @@
+package mrducky.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import mrducky.metrics.Metrics;
+
+/**
+ * Trigram index over task descriptions for case-insensitive substring search.
+ *
+ * <p>Tasks are indexed under their slot in the task list, and each task's description is
+ * lowercased once, when the task is added. Every three-character window of it posts the
+ * slot to that trigram's posting list, a plain array of ints. A keyword of three or more
+ * characters only checks the slots in the smallest posting list among its own trigrams.
+ * Shorter keywords scan the cached lowercase descriptions. Slots are added in increasing
+ * order, which is list order, so results come back in list order.
+ *
+ * <p>Each search records how many slots it checked in the process-wide {@link Metrics}.
+ *
+ * <p>Removing a task only empties its slot, and the posting lists keep the stale slot until
+ * the task list compacts its slots and builds a new index.
+ */
+class KeywordIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_CAPACITY = 16;
+
+    private Task[] tasks = new Task[MIN_CAPACITY];
+    private String[] lowerDescriptions = new String[MIN_CAPACITY];
+    private int slotCount;
+    private final Map<Long, Posting> postings = new HashMap<>();
+
+    /**
+     * Adds a task to the index. Slots must be added in increasing order.
+     *
+     * @param task Task to index.
+     * @param slot Slot of the task in the task list.
+     */
+    void add(Task task, int slot) {
+        assert slot >= slotCount : "Slots must be added in increasing order";
+        if (slot >= tasks.length) {
+            int capacity = Math.max(slot + 1, tasks.length * 2);
+            tasks = Arrays.copyOf(tasks, capacity);
+            lowerDescriptions = Arrays.copyOf(lowerDescriptions, capacity);
+        }
+        // toLowerCase returns the same string when nothing changes, so most descriptions are shared
+        String lower = task.getDescription().toLowerCase();
+        tasks[slot] = task;
+        lowerDescriptions[slot] = lower;
+        slotCount = slot + 1;
+        for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+            postings.computeIfAbsent(gram(lower, i), key -> new Posting()).add(slot);
+        }
+    }
+
+    /**
+     * Removes the task in the given slot from the index.
+     *
+     * @param slot Slot of the task in the task list.
+     */
+    void remove(int slot) {
+        if (slot < slotCount) {
+            tasks[slot] = null;
+            lowerDescriptions[slot] = null;
+        }
+    }
+
+    /**
+     * Returns tasks whose description contains the keyword, ignoring case, in list order.
+     *
+     * @param keyword Keyword to search for.
+     * @return Matching tasks.
+     */
+    List<Task> find(String keyword) {
+        String normalizedKeyword = keyword.toLowerCase();
+        List<Task> found = new ArrayList<>();
+        if (normalizedKeyword.length() < GRAM_LENGTH) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                addIfMatches(slot, normalizedKeyword, found);
+            }
+            Metrics.getDefault().recordFindScan(slotCount);
+            return found;
+        }
+        Posting smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= normalizedKeyword.length(); i++) {
+            Posting posting = postings.get(gram(normalizedKeyword, i));
+            if (posting == null) {
+                Metrics.getDefault().recordFindScan(0);
+                return found;
+            }
+            if (smallest == null || posting.size < smallest.size) {
+                smallest = posting;
+            }
+        }
+        for (int i = 0; i < smallest.size; i++) {
+            addIfMatches(smallest.slots[i], normalizedKeyword, found);
+        }
+        Metrics.getDefault().recordFindScan(smallest.size);
+        return found;
+    }
+
+    private void addIfMatches(int slot, String normalizedKeyword, List<Task> found) {
+        String lower = lowerDescriptions[slot];
+        if (lower != null && lower.contains(normalizedKeyword)) {
+            found.add(tasks[slot]);
+        }
+    }
+
+    /**
+     * Packs the three characters starting at the given index into one key.
+     */
+    private static long gram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    /**
+     * Slots of the tasks containing one trigram, in increasing order.
+     */
+    private static class Posting {
+        private int[] slots = new int[2];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                // The trigram appears more than once in the same description
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
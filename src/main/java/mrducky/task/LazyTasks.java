@@ -0,0 +1,24 @@
+package mrducky.task;
+
+/**
+ * Tasks kept in storage and only created when first needed.
+ * A {@link TaskList} built on lazy tasks asks for each one the first time it is shown,
+ * searched or changed, and asks at most once per position.
+ */
+public interface LazyTasks {
+    /**
+     * Returns the number of tasks.
+     *
+     * @return Number of tasks.
+     */
+    int size();
+
+    /**
+     * Creates the task at the given position.
+     *
+     * @param index Zero-based position of the task.
+     * @return The task.
+     * @throws java.io.UncheckedIOException If the task cannot be read from storage.
+     */
+    Task load(int index);
+}
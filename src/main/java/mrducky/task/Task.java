@@ -1,11 +1,26 @@
 package mrducky.task;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 /**
  * Represents a task with a description and completion status.
+ *
+ * <p>The display string is built on first use and kept until the done status changes,
+ * so listing the same tasks again does not format their dates again.
+ *
+ * <p>Every change to the done status also bumps the task's version, so storage can tell
+ * which tasks changed since it last wrote them.
  */
 public class Task {
+    private static final AtomicLongFieldUpdater<Task> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Task.class, "version");
+
     private final String description;
-    private boolean isDone;
+    // Volatile so a mark made on one thread is seen by readers on others
+    private volatile boolean isDone;
+    private volatile String displayString;
+    private volatile long version;
+    private long id;
 
     Task(String description) {
         assert description != null : "Description cannot be null";
@@ -22,6 +37,30 @@ public class Task {
         return description;
     }
 
+    /**
+     * Returns the ID given to the task when it was added to a task list.
+     * IDs stay the same when other tasks are added or deleted.
+     *
+     * @return Task ID, or 0 if the task is not in a task list.
+     */
+    public long getId() {
+        return id;
+    }
+
+    void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns a number that changes every time the done status is set.
+     * Read the version before the done status: a version read first is never newer than the status.
+     *
+     * @return Current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Returns whether the task is marked as done.
      *
@@ -35,14 +74,14 @@ public class Task {
      * Marks the task as done.
      */
     public void mark() {
-        isDone = true;
+        setDone(true);
     }
 
     /**
      * Marks the task as not done.
      */
     public void unmark() {
-        isDone = false;
+        setDone(false);
     }
 
     /**
@@ -52,11 +91,48 @@ public class Task {
      */
     public void setDone(boolean done) {
         isDone = done;
+        // Cleared after the flag changes, so a string rendered from the old status cannot outlive it
+        displayString = null;
+        // Bumped last and atomically, so concurrent marks never leave an older status under a newer version
+        VERSION.incrementAndGet(this);
+    }
+
+    /**
+     * Returns a new task with the same details and done status, but no ID.
+     * Subclasses return a copy of their own type.
+     *
+     * @return Copy of the task.
+     */
+    Task copy() {
+        Task copy = new Task(description);
+        copy.isDone = isDone;
+        return copy;
     }
 
     @Override
     public String toString() {
-        return (isDone ? "[X] " : "[ ] ") + description;
+        String cached = displayString;
+        if (cached != null) {
+            return cached;
+        }
+        boolean done = isDone;
+        String rendered = render(done);
+        displayString = rendered;
+        if (isDone != done) {
+            // Marked while rendering, so the string just cached is already out of date
+            displayString = null;
+        }
+        return rendered;
     }
 
+    /**
+     * Builds the display string for the given done status.
+     * Subclasses add their type and times around the status and description.
+     *
+     * @param done Done status to show.
+     * @return Display string.
+     */
+    protected String render(boolean done) {
+        return (done ? "[X] " : "[ ] ") + description;
+    }
 }
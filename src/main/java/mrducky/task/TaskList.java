@@ -1,13 +1,60 @@
 package mrducky.task;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Represents a list of tasks.
- * Has methods to add, delete, mark, and unmark tasks.
+ * Has methods to add, delete, mark, unmark and find tasks, by keyword or by time.
+ *
+ * <p>A task list is safe to use from many threads. Adding and deleting take an exclusive
+ * lock that also covers the indexes. Lookups and searches share a read lock, so readers
+ * never wait for one another. Marking and unmarking only flip the task's volatile done
+ * flag, so they share the read lock too. Every task gets an ID when it is added, and the
+ * ID stays the same while other tasks come and go.
+ *
+ * <p>Tasks sit in an append-only slot array, and a deleted task leaves an empty slot
+ * behind. A {@link FenwickTree} counts the live slots, so finding the task at a display
+ * position and deleting it both take O(log n) with no shifting. The array is compacted
+ * once empty slots outnumber live ones.
+ *
+ * <p>Changes that must happen all together, or not at all, are made on a {@link #copy()}
+ * that then takes the place of the original with {@link #replaceWith(TaskList)}.
+ *
+ * <p>A task list built on {@link LazyTasks} starts with every slot empty and creates each
+ * task the first time it is looked up. The keyword and time indexes are only built by the
+ * first search, and compacting the slots creates every remaining task first.
  */
 public class TaskList {
-    private final List<Task> tasks;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+
+    private Map<Long, Task> tasksById = new HashMap<>();
+    private KeywordIndex keywordIndex = new KeywordIndex();
+    private TemporalIndex temporalIndex = new TemporalIndex();
+    private final Lock readLock;
+    private final Lock writeLock;
+    private Task[] slots;
+    private FenwickTree liveSlots;
+    private int slotCount;
+    private int size;
+    private long nextId = 1;
+    private volatile List<Task> snapshot;
+    private final Object loadLock = new Object();
+    private LazyTasks source;
+    private BitSet unloaded;
+    private int sourceSize;
+    private volatile boolean isIndexed = true;
 
     /**
      * Initializes the TaskList with the given list of tasks.
@@ -15,7 +62,48 @@ public class TaskList {
      * @param tasks List of tasks.
      */
     public TaskList(List<Task> tasks) {
-        this.tasks = tasks;
+        this(tasks, false);
+    }
+
+    private TaskList(List<Task> tasks, boolean keepIds) {
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        int capacity = Math.max(MIN_CAPACITY, tasks.size() * 2);
+        this.slots = new Task[capacity];
+        for (Task task : tasks) {
+            slots[slotCount] = task;
+            index(task, slotCount, keepIds);
+            slotCount++;
+        }
+        this.size = slotCount;
+        this.liveSlots = new FenwickTree(capacity);
+        liveSlots.rebuild(capacity, size);
+    }
+
+    /**
+     * Initializes the TaskList with tasks that are created from the source as they are needed.
+     * The task at position i gets the ID i + 1, as it would in a list built from all the tasks.
+     *
+     * @param source Tasks to create on demand.
+     */
+    public TaskList(LazyTasks source) {
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        int count = source.size();
+        int capacity = Math.max(MIN_CAPACITY, count * 2);
+        this.slots = new Task[capacity];
+        this.slotCount = count;
+        this.size = count;
+        this.nextId = count + 1;
+        this.liveSlots = new FenwickTree(capacity);
+        liveSlots.rebuild(capacity, count);
+        this.source = source;
+        this.sourceSize = count;
+        this.unloaded = new BitSet(count);
+        unloaded.set(0, count);
+        this.isIndexed = false;
     }
 
     /**
@@ -24,34 +112,75 @@ public class TaskList {
      * @param task The task to be added.
      */
     public void addTask(Task task) {
-        tasks.add(task);
+        writeLock.lock();
+        try {
+            if (slotCount == slots.length) {
+                compact(Math.max(MIN_CAPACITY, size * 2));
+            }
+            slots[slotCount] = task;
+            liveSlots.add(slotCount, 1);
+            index(task, slotCount, false);
+            slotCount++;
+            size++;
+            snapshot = null;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
      * Deletes a task from the task list by index.
      *
      * @param index The index of the task to be deleted.
+     * @return The deleted task.
      */
-    public void deleteTask(int index) {
-        tasks.remove(index);
+    public Task deleteTask(int index) {
+        writeLock.lock();
+        try {
+            int slot = slotOf(index);
+            Task task = taskInSlot(slot);
+            slots[slot] = null;
+            liveSlots.add(slot, -1);
+            size--;
+            tasksById.remove(task.getId());
+            if (isIndexed) {
+                // Before compacting, which numbers the slots afresh
+                keywordIndex.remove(slot);
+                temporalIndex.remove(task);
+            }
+            int tombstones = slotCount - size;
+            if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > size) {
+                compact(slots.length);
+            }
+            snapshot = null;
+            return task;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
      * Marks the task at the specified index as done.
      *
      * @param index The index of the task to mark as done.
+     * @return The marked task.
      */
-    public void markTask(int index) {
-        tasks.get(index).mark();
+    public Task markTask(int index) {
+        Task task = getTasks(index);
+        task.mark();
+        return task;
     }
 
     /**
      * Unmarks the task at the specified index as not done.
      *
      * @param index The index of the task to unmark.
+     * @return The unmarked task.
      */
-    public void unmarkTask(int index) {
-        tasks.get(index).unmark();
+    public Task unmarkTask(int index) {
+        Task task = getTasks(index);
+        task.unmark();
+        return task;
     }
 
     /**
@@ -60,7 +189,12 @@ public class TaskList {
      * @return The size of the task list.
      */
     public int getSize() {
-        return tasks.size();
+        readLock.lock();
+        try {
+            return size;
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -70,6 +204,358 @@ public class TaskList {
      * @return The task at the specified index.
      */
     public Task getTasks(int index) {
-        return tasks.get(index);
+        readLock.lock();
+        try {
+            return taskInSlot(slotOf(index));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the tasks from position {@code from}, inclusive, to position {@code to}, exclusive.
+     * Positions past the end of the list are left out, so a page that another thread has just
+     * shortened comes back short rather than failing.
+     * Costs O(log n) to find the first task, then one step per task returned.
+     *
+     * @param from Index of the first task.
+     * @param to Index after the last task.
+     * @return Tasks in the range, in list order.
+     */
+    public List<Task> getRange(int from, int to) {
+        if (from < 0 || from > to) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ")");
+        }
+        readLock.lock();
+        try {
+            int end = Math.min(to, size);
+            List<Task> range = new ArrayList<>(Math.max(0, end - from));
+            if (from >= end) {
+                return range;
+            }
+            for (int slot = slotOf(from); range.size() < end - from; slot++) {
+                Task task = taskInSlot(slot);
+                if (task != null) {
+                    range.add(task);
+                }
+            }
+            return range;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The ID the task was given when it was added.
+     * @return The task, or null if no task in the list has that ID.
+     */
+    public Task getById(long id) {
+        readLock.lock();
+        try {
+            Task task = tasksById.get(id);
+            if (task == null && source != null && id >= 1 && id <= sourceSize) {
+                // Tasks from the source are numbered by position and only tracked once compacted
+                task = taskInSlot((int) (id - 1));
+            }
+            return task;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, ignoring case.
+     *
+     * @param keyword The keyword to search for.
+     * @return Matching tasks, in list order.
+     */
+    public List<Task> find(String keyword) {
+        ensureIndexed();
+        readLock.lock();
+        try {
+            return keywordIndex.find(keyword);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the deadlines due between the given times, inclusive.
+     *
+     * @param from Earliest due time.
+     * @param to Latest due time.
+     * @return Matching deadlines, by due time.
+     */
+    public List<Task> findDueBetween(LocalDateTime from, LocalDateTime to) {
+        ensureIndexed();
+        readLock.lock();
+        try {
+            return temporalIndex.findDueBetween(from, to);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether any event in the list ends before it starts. New events cannot,
+     * but older data files may hold some.
+     *
+     * @return True if such an event is in the list.
+     */
+    boolean hasEventsEndingBeforeStart() {
+        ensureIndexed();
+        readLock.lock();
+        try {
+            return temporalIndex.hasEventsEndingBeforeStart();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the events that overlap the given time range, inclusive.
+     *
+     * @param from Start of the range.
+     * @param to End of the range.
+     * @return Overlapping events, by start time.
+     */
+    public List<Task> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        ensureIndexed();
+        readLock.lock();
+        try {
+            return temporalIndex.findOverlapping(from, to);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the deadlines due on the given date, followed by the events happening on it.
+     *
+     * @param date The date to look up.
+     * @return Deadlines by due time, then events by start time.
+     */
+    public List<Task> findOn(LocalDate date) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.atTime(LocalTime.MAX);
+        ensureIndexed();
+        readLock.lock();
+        try {
+            List<Task> found = temporalIndex.findDueBetween(from, to);
+            found.addAll(temporalIndex.findOverlapping(from, to));
+            return found;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns an immutable copy of the tasks as they are now, in list order.
+     * The copy is cached until the next add or delete, so repeated calls are cheap.
+     *
+     * @return Immutable list of the tasks.
+     */
+    public List<Task> snapshot() {
+        List<Task> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        readLock.lock();
+        try {
+            List<Task> copy = new ArrayList<>(size);
+            for (int i = 0; i < slotCount; i++) {
+                Task task = taskInSlot(i);
+                if (task != null) {
+                    copy.add(task);
+                }
+            }
+            current = List.copyOf(copy);
+            snapshot = current;
+            return current;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a read-only live view of the tasks, in list order.
+     * Unlike {@link #snapshot()}, the view reflects later changes and costs nothing to create.
+     *
+     * @return Unmodifiable view of the tasks.
+     */
+    public List<Task> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                return getTasks(index);
+            }
+
+            @Override
+            public int size() {
+                return getSize();
+            }
+        };
+    }
+
+    /**
+     * Returns a separate task list holding copies of the tasks, with the same IDs and done status.
+     * Changes to the copy do not affect this list until it is passed to {@link #replaceWith(TaskList)}.
+     *
+     * @return Copy of the task list.
+     */
+    public TaskList copy() {
+        readLock.lock();
+        try {
+            List<Task> copies = new ArrayList<>(size);
+            for (int i = 0; i < slotCount; i++) {
+                Task task = taskInSlot(i);
+                if (task != null) {
+                    Task copy = task.copy();
+                    copy.setId(task.getId());
+                    copies.add(copy);
+                }
+            }
+            TaskList copy = new TaskList(copies, true);
+            copy.nextId = nextId;
+            return copy;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents of this list with the contents of the other list, in one step.
+     * Readers see either all of the old tasks or all of the new ones. The other list must not
+     * be used afterwards, since the two lists now share their tasks and indexes.
+     *
+     * @param other List whose tasks take the place of this list's tasks.
+     */
+    public void replaceWith(TaskList other) {
+        writeLock.lock();
+        other.readLock.lock();
+        try {
+            tasksById = other.tasksById;
+            keywordIndex = other.keywordIndex;
+            temporalIndex = other.temporalIndex;
+            slots = other.slots;
+            liveSlots = other.liveSlots;
+            slotCount = other.slotCount;
+            size = other.size;
+            nextId = other.nextId;
+            source = other.source;
+            unloaded = other.unloaded;
+            sourceSize = other.sourceSize;
+            isIndexed = other.isIndexed;
+            snapshot = null;
+        } finally {
+            other.readLock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    private int slotOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return liveSlots.findKth(index + 1);
+    }
+
+    /**
+     * Moves the live tasks to the front of a slot array of the given capacity, dropping empty slots.
+     */
+    private void compact(int capacity) {
+        if (source != null) {
+            // Moving tasks breaks the link between slot and source position
+            materializeAll();
+        }
+        Task[] compacted = new Task[capacity];
+        int next = 0;
+        for (int i = 0; i < slotCount; i++) {
+            if (slots[i] != null) {
+                compacted[next++] = slots[i];
+            }
+        }
+        slots = compacted;
+        slotCount = next;
+        liveSlots.rebuild(capacity, next);
+        if (isIndexed) {
+            // The keyword index is by slot, so it is built again for the new slots
+            keywordIndex = new KeywordIndex();
+            for (int i = 0; i < next; i++) {
+                keywordIndex.add(slots[i], i);
+            }
+        }
+    }
+
+    private void index(Task task, int slot, boolean keepId) {
+        if (!keepId) {
+            task.setId(nextId++);
+        }
+        tasksById.put(task.getId(), task);
+        if (isIndexed) {
+            keywordIndex.add(task, slot);
+            temporalIndex.add(task);
+        }
+    }
+
+    /**
+     * Returns the task in the given slot, creating it from the source if it has not been yet.
+     * Readers holding the shared lock may race to create the same task, so creating takes a lock of its own.
+     */
+    private Task taskInSlot(int slot) {
+        if (source == null) {
+            return slots[slot];
+        }
+        synchronized (loadLock) {
+            Task task = slots[slot];
+            if (task == null && unloaded.get(slot)) {
+                task = source.load(slot);
+                task.setId(slot + 1);
+                slots[slot] = task;
+                unloaded.clear(slot);
+            }
+            return task;
+        }
+    }
+
+    /**
+     * Creates every task still left in the source and tracks them all by ID. Callers hold the write lock.
+     */
+    private void materializeAll() {
+        for (int i = 0; i < sourceSize; i++) {
+            Task task = taskInSlot(i);
+            if (task != null) {
+                tasksById.put(task.getId(), task);
+            }
+        }
+        source = null;
+        unloaded = null;
+    }
+
+    /**
+     * Builds the keyword and time indexes on first use, for lists built on lazy tasks.
+     */
+    private void ensureIndexed() {
+        if (isIndexed) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (isIndexed) {
+                return;
+            }
+            for (int i = 0; i < slotCount; i++) {
+                Task task = taskInSlot(i);
+                if (task != null) {
+                    keywordIndex.add(task, i);
+                    temporalIndex.add(task);
+                }
+            }
+            isIndexed = true;
+        } finally {
+            writeLock.unlock();
+        }
     }
 }
@@ -0,0 +1,376 @@
+package mrducky.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A search over a task list that filters on type, done status, description and times,
+ * with an optional sort order and limit. Filters are set one at a time and all must match.
+ *
+ * <p>Running a query first picks where its candidates come from, using an index when a filter
+ * allows it: a description filter of three or more characters uses the keyword index, a due
+ * time range uses the deadlines' due-time index, and a start or end time range uses the events'
+ * interval tree, unless some event in the list ends before it starts. Only the first of these
+ * that applies is used, and otherwise every task is a candidate. The candidates then go through
+ * one pass that checks every filter, and that stops at the limit when the candidates already
+ * come in the order asked for. Otherwise the pass keeps only the first matches up to the limit
+ * as it goes, and sorts them at the end. Large candidate sets are checked in parallel.
+ */
+public class TaskQuery {
+    /** Number of candidates above which they are checked in parallel. */
+    static final int PARALLEL_THRESHOLD = 50_000;
+    // Shortest description filter the keyword index can narrow down, as it indexes trigrams
+    private static final int MIN_INDEXED_TEXT_LENGTH = 3;
+
+    /**
+     * Times of a task that a query can filter and sort on.
+     */
+    public enum TimeField {
+        /** Due time of a deadline. */
+        DUE,
+        /** Start time of an event. */
+        FROM,
+        /** End time of an event. */
+        TO
+    }
+
+    /**
+     * Orders a query's results can be sorted in.
+     */
+    public enum Order {
+        /** Order of the task list. */
+        LIST,
+        /** Description, ignoring case. */
+        DESCRIPTION,
+        /** Due time, with tasks that have none last. */
+        DUE,
+        /** Start time, with tasks that have none last. */
+        FROM,
+        /** End time, with tasks that have none last. */
+        TO
+    }
+
+    /**
+     * Where a query's candidates come from.
+     */
+    enum Source {
+        ALL,
+        KEYWORD_INDEX,
+        DUE_INDEX,
+        EVENT_INDEX
+    }
+
+    private Class<? extends Task> type;
+    private Boolean isDone;
+    private String text;
+    private final TimeRange due = new TimeRange();
+    private final TimeRange from = new TimeRange();
+    private final TimeRange to = new TimeRange();
+    private Order order = Order.LIST;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Keeps only tasks of the given type.
+     *
+     * @param type {@link ToDo}, {@link Deadline} or {@link Event}.
+     * @return This query.
+     */
+    public TaskQuery ofType(Class<? extends Task> type) {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * Keeps only tasks with the given done status.
+     *
+     * @param isDone True for done tasks, false for tasks not done.
+     * @return This query.
+     */
+    public TaskQuery withDone(boolean isDone) {
+        this.isDone = isDone;
+        return this;
+    }
+
+    /**
+     * Keeps only tasks whose description contains the text, ignoring case.
+     *
+     * @param text Text to search for.
+     * @return This query.
+     */
+    public TaskQuery containing(String text) {
+        this.text = text;
+        return this;
+    }
+
+    /**
+     * Keeps only tasks that have the given time, at or after the given time.
+     * Deadlines have a due time, and events a start and an end time.
+     *
+     * @param field Time to filter on.
+     * @param time Earliest time kept.
+     * @return This query.
+     */
+    public TaskQuery atOrAfter(TimeField field, LocalDateTime time) {
+        range(field).narrowMin(time);
+        return this;
+    }
+
+    /**
+     * Keeps only tasks that have the given time, at or before the given time.
+     * Deadlines have a due time, and events a start and an end time.
+     *
+     * @param field Time to filter on.
+     * @param time Latest time kept.
+     * @return This query.
+     */
+    public TaskQuery atOrBefore(TimeField field, LocalDateTime time) {
+        range(field).narrowMax(time);
+        return this;
+    }
+
+    /**
+     * Sorts the results. Ties keep list order.
+     *
+     * @param order Order of the results.
+     * @return This query.
+     */
+    public TaskQuery sortedBy(Order order) {
+        this.order = order;
+        return this;
+    }
+
+    /**
+     * Returns at most the given number of results, the first ones in the sort order.
+     *
+     * @param limit Most results returned.
+     * @return This query.
+     */
+    public TaskQuery limitedTo(int limit) {
+        assert limit > 0 : "Limit must be positive";
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Runs the query against the task list.
+     *
+     * @param tasks Task list to search.
+     * @return Matching tasks, in the sort order and at most the limit.
+     */
+    public List<Task> run(TaskList tasks) {
+        Source source = chooseSource(tasks);
+        List<Task> candidates = findCandidates(tasks, source);
+        Stream<Task> matches = (candidates.size() > PARALLEL_THRESHOLD ? candidates.parallelStream()
+                : candidates.stream()).filter(this::matches);
+        if (isInOrder(source)) {
+            return matches.limit(limit).collect(Collectors.toList());
+        }
+        Comparator<Task> comparator = comparator();
+        if (candidates.size() <= limit) {
+            List<Task> found = matches.collect(Collectors.toList());
+            found.sort(comparator);
+            return found;
+        }
+        return matches.collect(first(comparator, limit));
+    }
+
+    /**
+     * Returns whether the task passes every filter of the query.
+     *
+     * @param task Task to check.
+     * @return True if the task matches.
+     */
+    public boolean matches(Task task) {
+        if (type != null && !type.isInstance(task)) {
+            return false;
+        }
+        if (isDone != null && task.isDone() != isDone) {
+            return false;
+        }
+        if (text != null && !containsIgnoringCase(task.getDescription(), text)) {
+            return false;
+        }
+        if (due.isBounded() && !(task instanceof Deadline && due.contains(((Deadline) task).getDueDate()))) {
+            return false;
+        }
+        if (from.isBounded() || to.isBounded()) {
+            if (!(task instanceof Event)) {
+                return false;
+            }
+            Event event = (Event) task;
+            return from.contains(event.getFromTime()) && to.contains(event.getToTime());
+        }
+        return true;
+    }
+
+    Source chooseSource(TaskList tasks) {
+        if (text != null && text.length() >= MIN_INDEXED_TEXT_LENGTH) {
+            return Source.KEYWORD_INDEX;
+        }
+        if (due.isBounded()) {
+            return Source.DUE_INDEX;
+        }
+        // Picking candidates from the interval tree relies on every event ending at or after its start
+        if ((from.isBounded() || to.isBounded()) && !tasks.hasEventsEndingBeforeStart()) {
+            return Source.EVENT_INDEX;
+        }
+        return Source.ALL;
+    }
+
+    private List<Task> findCandidates(TaskList tasks, Source source) {
+        switch (source) {
+        case KEYWORD_INDEX:
+            return tasks.find(text);
+        case DUE_INDEX:
+            return tasks.findDueBetween(due.getMinOr(LocalDateTime.MIN), due.getMaxOr(LocalDateTime.MAX));
+        case EVENT_INDEX:
+            // An event starting at or after a time ends after it too, so it overlaps the range from that time
+            // on, and likewise an event ending at or before a time overlaps the range up to it
+            LocalDateTime earliest = max(from.getMinOr(LocalDateTime.MIN), to.getMinOr(LocalDateTime.MIN));
+            LocalDateTime latest = min(from.getMaxOr(LocalDateTime.MAX), to.getMaxOr(LocalDateTime.MAX));
+            return earliest.isAfter(latest) ? List.of() : tasks.findOverlapping(earliest, latest);
+        default:
+            return tasks.snapshot();
+        }
+    }
+
+    /**
+     * Returns whether the candidates from the source already come in the sort order,
+     * so the pass over them can stop at the limit.
+     */
+    private boolean isInOrder(Source source) {
+        switch (order) {
+        case LIST:
+            return source == Source.ALL || source == Source.KEYWORD_INDEX;
+        case DUE:
+            return source == Source.DUE_INDEX;
+        case FROM:
+            return source == Source.EVENT_INDEX;
+        default:
+            return false;
+        }
+    }
+
+    private Comparator<Task> comparator() {
+        // Task IDs grow as tasks are added, so they follow list order
+        Comparator<Task> listOrder = Comparator.comparingLong(Task::getId);
+        switch (order) {
+        case DESCRIPTION:
+            return Comparator.comparing(Task::getDescription, String.CASE_INSENSITIVE_ORDER).thenComparing(listOrder);
+        case DUE:
+            return byTime(task -> task instanceof Deadline ? ((Deadline) task).getDueDate() : null)
+                    .thenComparing(listOrder);
+        case FROM:
+            return byTime(task -> task instanceof Event ? ((Event) task).getFromTime() : null)
+                    .thenComparing(listOrder);
+        case TO:
+            return byTime(task -> task instanceof Event ? ((Event) task).getToTime() : null)
+                    .thenComparing(listOrder);
+        default:
+            return listOrder;
+        }
+    }
+
+    /**
+     * Returns a collector of the first tasks in the given order, which keeps only that many at a time
+     * rather than collecting and sorting them all.
+     */
+    private static Collector<Task, PriorityQueue<Task>, List<Task>> first(Comparator<Task> comparator, int count) {
+        // The head of each queue is the last of the first tasks found so far
+        return Collector.of(() -> new PriorityQueue<>(comparator.reversed()),
+                (kept, task) -> keepIfFirst(kept, task, comparator, count),
+                (kept, others) -> {
+                    others.forEach(task -> keepIfFirst(kept, task, comparator, count));
+                    return kept;
+                },
+                kept -> {
+                    List<Task> first = new ArrayList<>(kept);
+                    first.sort(comparator);
+                    return first;
+                });
+    }
+
+    private static void keepIfFirst(PriorityQueue<Task> kept, Task task, Comparator<Task> comparator, int count) {
+        if (kept.size() < count) {
+            kept.add(task);
+        } else if (comparator.compare(task, kept.peek()) < 0) {
+            kept.poll();
+            kept.add(task);
+        }
+    }
+
+    /**
+     * Returns whether the text occurs in the description, ignoring case, without lowercasing the description.
+     */
+    private static boolean containsIgnoringCase(String description, String text) {
+        int last = description.length() - text.length();
+        for (int i = 0; i <= last; i++) {
+            if (description.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Comparator<Task> byTime(Function<Task, LocalDateTime> time) {
+        return Comparator.comparing(time, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private TimeRange range(TimeField field) {
+        switch (field) {
+        case DUE:
+            return due;
+        case FROM:
+            return from;
+        default:
+            return to;
+        }
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    /**
+     * Inclusive range of times, open at either end until narrowed.
+     */
+    private static class TimeRange {
+        private LocalDateTime min;
+        private LocalDateTime max;
+
+        void narrowMin(LocalDateTime time) {
+            min = min == null ? time : max(min, time);
+        }
+
+        void narrowMax(LocalDateTime time) {
+            max = max == null ? time : min(max, time);
+        }
+
+        boolean isBounded() {
+            return min != null || max != null;
+        }
+
+        boolean contains(LocalDateTime time) {
+            return (min == null || !time.isBefore(min)) && (max == null || !time.isAfter(max));
+        }
+
+        LocalDateTime getMinOr(LocalDateTime defaultTime) {
+            return min == null ? defaultTime : min;
+        }
+
+        LocalDateTime getMaxOr(LocalDateTime defaultTime) {
+            return max == null ? defaultTime : max;
+        }
+    }
+}
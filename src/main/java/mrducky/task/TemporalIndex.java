@@ -0,0 +1,128 @@
+package mrducky.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Time-ordered indexes over deadlines and events.
+ * Deadlines are kept sorted by due time, and events in an {@link IntervalTree}.
+ * Both are keyed on the seconds since the epoch that deadlines and events store,
+ * so indexing a task creates no date-time objects.
+ */
+class TemporalIndex {
+    // Deadlines rarely share a due time, so each time holds a small list rather than a set
+    private final TreeMap<Long, List<Task>> deadlinesByDue = new TreeMap<>();
+    private final IntervalTree events = new IntervalTree();
+    private final Map<Task, Long> eventSequences = new HashMap<>();
+    private long nextSequence;
+    private int eventsEndingBeforeStart;
+
+    /**
+     * Adds a task to the index. Tasks without times are ignored.
+     *
+     * @param task Task to index.
+     */
+    void add(Task task) {
+        if (task instanceof Deadline) {
+            long due = ((Deadline) task).getDueSecond();
+            deadlinesByDue.computeIfAbsent(due, key -> new ArrayList<>(1)).add(task);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            long sequence = nextSequence++;
+            eventSequences.put(task, sequence);
+            events.insert(event.getFromSecond(), event.getToSecond(), sequence, task);
+            if (event.getToSecond() < event.getFromSecond()) {
+                eventsEndingBeforeStart++;
+            }
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task Task to remove.
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline) {
+            long due = ((Deadline) task).getDueSecond();
+            List<Task> sameDue = deadlinesByDue.get(due);
+            if (sameDue != null) {
+                sameDue.remove(task);
+                if (sameDue.isEmpty()) {
+                    deadlinesByDue.remove(due);
+                }
+            }
+        } else if (task instanceof Event) {
+            Long sequence = eventSequences.remove(task);
+            if (sequence != null) {
+                Event event = (Event) task;
+                events.remove(event.getFromSecond(), sequence);
+                if (event.getToSecond() < event.getFromSecond()) {
+                    eventsEndingBeforeStart--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether any indexed event ends before it starts, which only older data files can hold.
+     *
+     * @return True if such an event is indexed.
+     */
+    boolean hasEventsEndingBeforeStart() {
+        return eventsEndingBeforeStart > 0;
+    }
+
+    /**
+     * Returns deadlines due between the given times, inclusive, in due-time order.
+     *
+     * @param from Earliest due time.
+     * @param to Latest due time.
+     * @return Matching deadlines.
+     */
+    List<Task> findDueBetween(LocalDateTime from, LocalDateTime to) {
+        List<Task> found = new ArrayList<>();
+        long first = firstSecondAtOrAfter(from);
+        long last = lastSecondAtOrBefore(to);
+        if (first > last) {
+            return found;
+        }
+        for (List<Task> dueTasks : deadlinesByDue.subMap(first, true, last, true).values()) {
+            found.addAll(dueTasks);
+        }
+        return found;
+    }
+
+    /**
+     * Returns events that overlap the given time range, inclusive, in start-time order.
+     *
+     * @param from Start of the range.
+     * @param to End of the range.
+     * @return Overlapping events.
+     */
+    List<Task> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Task> found = new ArrayList<>();
+        events.findOverlapping(firstSecondAtOrAfter(from), lastSecondAtOrBefore(to), found);
+        return found;
+    }
+
+    /**
+     * Returns the first whole second at or after the time. Indexed times are whole seconds.
+     */
+    private static long firstSecondAtOrAfter(LocalDateTime time) {
+        long second = time.toEpochSecond(ZoneOffset.UTC);
+        return time.getNano() == 0 ? second : second + 1;
+    }
+
+    /**
+     * Returns the last whole second at or before the time.
+     */
+    private static long lastSecondAtOrBefore(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
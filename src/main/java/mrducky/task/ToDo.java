@@ -14,7 +14,14 @@ public class ToDo extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    Task copy() {
+        Task copy = new ToDo(getDescription());
+        copy.setDone(isDone());
+        return copy;
+    }
+
+    @Override
+    protected String render(boolean done) {
+        return "[T]" + super.render(done);
     }
 }
@@ -0,0 +1,46 @@
+package mrducky.ui;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * Observable view of a {@link Transcript}, used as the items of the conversation ListView.
+ * The ListView only asks for the messages it is showing, so spilled messages are read back
+ * from disk only when the user scrolls to them.
+ */
+public class ConversationList extends ObservableListBase<Message> {
+    private final Transcript transcript;
+
+    /**
+     * Creates a view of the given transcript.
+     *
+     * @param transcript Transcript holding the messages.
+     */
+    public ConversationList(Transcript transcript) {
+        this.transcript = transcript;
+    }
+
+    /**
+     * Adds a message to the end of the conversation and notifies listeners.
+     *
+     * @param message Message to add.
+     */
+    public void append(Message message) {
+        beginChange();
+        try {
+            transcript.add(message);
+            nextAdd(transcript.size() - 1, transcript.size());
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public Message get(int index) {
+        return transcript.get(index);
+    }
+
+    @Override
+    public int size() {
+        return transcript.size();
+    }
+}
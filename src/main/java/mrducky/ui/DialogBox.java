@@ -12,24 +12,20 @@ import javafx.scene.layout.HBox;
 
 /**
  * Represents a dialog box consisting of text and an image.
+ * A dialog box is reused for many messages, so its text, image and side can all be changed.
  */
 public class DialogBox extends HBox {
 
     private final Label text;
     private final ImageView displayPicture;
+    private boolean isImageOnLeft;
 
     /**
-     * Creates a dialog box with the given text and image.
-     *
-     * @param text Dialog text.
-     * @param image Dialog image.
+     * Creates an empty dialog box with the image on the right.
      */
-    private DialogBox(String text, Image image) {
-        assert text != null : "Text cannot be null";
-        assert image != null : "Image cannot be null";
-        
-        this.text = new Label(text);
-        displayPicture = new ImageView(image);
+    public DialogBox() {
+        this.text = new Label();
+        displayPicture = new ImageView();
 
         this.text.setWrapText(true);
         this.text.setMaxWidth(250.0);
@@ -44,36 +40,32 @@ public class DialogBox extends HBox {
     }
 
     /**
-     * Flips the dialog box so the image is on the left and text on the right.
-     */
-    private void flip() {
-        this.setAlignment(Pos.TOP_LEFT);
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        FXCollections.reverse(tmp);
-        this.getChildren().setAll(tmp);
-    }
-
-    /**
-     * Creates a dialog box for user input (image on the right).
+     * Shows the given message. User messages have the image on the right, and MrDucky's
+     * responses have it on the left.
      *
      * @param text Dialog text.
      * @param image Dialog image.
-     * @return DialogBox aligned to the right.
+     * @param isFromUser True if the user sent the message.
      */
-    public static DialogBox getUserDialog(String text, Image image) {
-        return new DialogBox(text, image);
+    public void setMessage(String text, Image image, boolean isFromUser) {
+        assert text != null : "Text cannot be null";
+        assert image != null : "Image cannot be null";
+
+        this.text.setText(text);
+        displayPicture.setImage(image);
+        if (isFromUser == isImageOnLeft) {
+            flip();
+        }
     }
 
     /**
-     * Creates a dialog box for MrDucky responses (image on the left).
-     *
-     * @param text Dialog text.
-     * @param image Dialog image.
-     * @return DialogBox aligned to the left.
+     * Flips the dialog box so the image moves to the other side.
      */
-    public static DialogBox getMrDuckyDialog(String text, Image image) {
-        DialogBox dialog = new DialogBox(text, image);
-        dialog.flip();
-        return dialog;
+    private void flip() {
+        isImageOnLeft = !isImageOnLeft;
+        this.setAlignment(isImageOnLeft ? Pos.TOP_LEFT : Pos.TOP_RIGHT);
+        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
+        FXCollections.reverse(tmp);
+        this.getChildren().setAll(tmp);
     }
 }
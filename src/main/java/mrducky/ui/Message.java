@@ -0,0 +1,29 @@
+package mrducky.ui;
+
+/**
+ * Represents one message in the conversation.
+ */
+public class Message {
+    private final boolean isFromUser;
+    private final String text;
+
+    /**
+     * Creates a message.
+     *
+     * @param isFromUser True if the user sent the message, false if MrDucky did.
+     * @param text Message text.
+     */
+    public Message(boolean isFromUser, String text) {
+        assert text != null : "Text cannot be null";
+        this.isFromUser = isFromUser;
+        this.text = text;
+    }
+
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,45 @@
+package mrducky.ui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * List cell that shows a message in a {@link DialogBox}.
+ * The ListView creates only enough cells to fill the screen and reuses them while scrolling,
+ * so each cell keeps one dialog box and only swaps its text and image.
+ */
+public class MessageCell extends ListCell<Message> {
+    private static final double SCROLL_BAR_ALLOWANCE = 20.0;
+
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image mrDuckyImage;
+
+    /**
+     * Creates a cell that shows messages with the given images.
+     *
+     * @param userImage Image shown next to user messages.
+     * @param mrDuckyImage Image shown next to MrDucky's messages.
+     */
+    public MessageCell(Image userImage, Image mrDuckyImage) {
+        this.userImage = userImage;
+        this.mrDuckyImage = mrDuckyImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // Lets the cell take the list's width instead of growing to fit its content
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        dialogBox.setMessage(message.getText(), message.isFromUser() ? userImage : mrDuckyImage,
+                message.isFromUser());
+        setGraphic(dialogBox);
+    }
+}
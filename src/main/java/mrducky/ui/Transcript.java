@@ -0,0 +1,212 @@
+package mrducky.ui;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the conversation history, holding only the newest messages in memory.
+ *
+ * <p>Once more than {@code capacity} messages have been added, the oldest ones are written
+ * to a spill file, one line each, and only their byte offsets stay in memory. Reading an old
+ * message back costs one small file read, and recently read ones are cached, so scrolling
+ * back through a long session stays cheap without the whole history living on the heap.
+ *
+ * <p>Not thread-safe. The GUI only uses it from the JavaFX application thread.
+ */
+public class Transcript {
+    private static final Logger logger = Logger.getLogger(Transcript.class.getName());
+    private static final int READ_CACHE_SIZE = 256;
+    private static final String UNAVAILABLE = "(This message could not be read back from disk.)";
+
+    private final Path spillFile;
+    private final int capacity;
+    private final ArrayDeque<Message> recent = new ArrayDeque<>();
+    private final Map<Integer, Message> readCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Message> eldest) {
+            return size() > READ_CACHE_SIZE;
+        }
+    };
+    private OutputStream spillOutput;
+    private FileChannel spillReader;
+    // spillOffsets[i] is where spilled message i starts; spillOffsets[spilledCount] is the end of the file
+    private long[] spillOffsets = new long[64];
+    private int spilledCount;
+
+    /**
+     * Creates an empty transcript.
+     *
+     * @param spillFile File older messages are written to. It is replaced if it exists.
+     * @param capacity Number of newest messages kept in memory.
+     */
+    public Transcript(Path spillFile, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.spillFile = spillFile;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the number of messages, including spilled ones.
+     *
+     * @return Total message count.
+     */
+    public int size() {
+        return spilledCount + recent.size();
+    }
+
+    /**
+     * Adds a message to the end of the transcript, spilling the oldest in-memory message
+     * to disk if the transcript is over capacity.
+     *
+     * @param message Message to add.
+     */
+    public void add(Message message) {
+        recent.addLast(message);
+        if (recent.size() > capacity) {
+            spill(recent.removeFirst());
+        }
+    }
+
+    /**
+     * Returns the message at the given position, oldest first.
+     *
+     * @param index Position of the message.
+     * @return The message.
+     */
+    public Message get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        if (index >= spilledCount) {
+            int fromNewest = size() - 1 - index;
+            if (fromNewest < recent.size() / 2) {
+                Iterator<Message> iterator = recent.descendingIterator();
+                for (int i = 0; i < fromNewest; i++) {
+                    iterator.next();
+                }
+                return iterator.next();
+            }
+            Iterator<Message> iterator = recent.iterator();
+            for (int i = spilledCount; i < index; i++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+        Message cached = readCache.get(index);
+        if (cached == null) {
+            cached = readSpilled(index);
+            readCache.put(index, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Closes the spill file and deletes it.
+     */
+    public void close() {
+        try {
+            if (spillOutput != null) {
+                spillOutput.close();
+            }
+            if (spillReader != null) {
+                spillReader.close();
+            }
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not delete transcript spill file: " + spillFile, e);
+        }
+    }
+
+    private void spill(Message message) {
+        byte[] line = encode(message);
+        try {
+            if (spillOutput == null) {
+                spillOutput = new BufferedOutputStream(Files.newOutputStream(spillFile));
+            }
+            spillOutput.write(line);
+        } catch (IOException e) {
+            // The message is still counted, it just reads back as unavailable
+            logger.log(Level.WARNING, "Could not write to transcript spill file: " + spillFile, e);
+        }
+        if (spilledCount + 1 >= spillOffsets.length) {
+            spillOffsets = Arrays.copyOf(spillOffsets, spillOffsets.length * 2);
+        }
+        spillOffsets[spilledCount + 1] = spillOffsets[spilledCount] + line.length;
+        spilledCount++;
+    }
+
+    private Message readSpilled(int index) {
+        long start = spillOffsets[index];
+        int length = (int) (spillOffsets[index + 1] - start);
+        try {
+            spillOutput.flush();
+            if (spillReader == null) {
+                spillReader = FileChannel.open(spillFile, StandardOpenOption.READ);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (spillReader.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Transcript spill file is shorter than expected");
+                }
+            }
+            return decode(new String(buffer.array(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read transcript spill file: " + spillFile, e);
+            return new Message(false, UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Encodes a message as one line: "U" or "M", then the text with backslashes and line
+     * breaks escaped.
+     */
+    private static byte[] encode(Message message) {
+        String text = message.getText();
+        StringBuilder line = new StringBuilder(text.length() + 2);
+        line.append(message.isFromUser() ? 'U' : 'M');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                line.append("\\\\");
+            } else if (c == '\n') {
+                line.append("\\n");
+            } else if (c == '\r') {
+                line.append("\\r");
+            } else {
+                line.append(c);
+            }
+        }
+        return line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Message decode(String line) {
+        StringBuilder text = new StringBuilder(line.length());
+        // Skip the speaker and the trailing line break
+        for (int i = 1; i < line.length() - 1; i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() - 1) {
+                char escaped = line.charAt(++i);
+                text.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                text.append(c);
+            }
+        }
+        return new Message(line.charAt(0) == 'U', text.toString());
+    }
+}
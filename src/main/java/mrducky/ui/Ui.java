@@ -1,15 +1,17 @@
 package mrducky.ui;
 
-import java.util.List;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Iterator;
 import java.util.Scanner;
 
-import mrducky.task.Task;
-
 /**
  * Handles user interactions for the chatbot.
  */
 public class Ui {
     private static final String LINE = "____________________________________________________________";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
     private final Scanner scanner;
 
     /**
@@ -36,15 +38,6 @@ public class Ui {
         showLine();
     }
 
-    /**
-     * Displays the goodbye message.
-    */
-    public void showGoodbye() {
-        showLine();
-        System.out.println("Bye. Hope to see you again soon!");
-        showLine();
-    }
-
     /**
      * Reads a command from the user.
      *
@@ -54,58 +47,6 @@ public class Ui {
         return scanner.nextLine();
     }
 
-    /**
-     * Displays a message when a task is added.
-     *
-     * @param task The task that was added.
-     * @param totalTasks The total number of tasks after addition.
-     */
-    public void showAddedTask(Task task, int totalTasks) {
-        showLine();
-        System.out.println("Got it. I've added this task:");
-        System.out.println("  " + task);
-        System.out.println("Now you have " + totalTasks + " tasks in the list.");
-        showLine();
-    }
-
-    /**
-     * Displays a message when a task is deleted.
-     *
-     * @param task The task that was deleted.
-     * @param totalTasks The total number of tasks after deletion.
-     */
-    public void showDeletedTask(Task task, int totalTasks) {
-        showLine();
-        System.out.println("Noted. I've removed this task:");
-        System.out.println("  " + task);
-        System.out.println("Now you have " + totalTasks + " tasks in the list.");
-        showLine();
-    }
-
-    /**
-     * Displays a message when a task is marked as done.
-     *
-     * @param task The task that was marked.
-     */
-    public void showMarkedTask(Task task) {
-        showLine();
-        System.out.println("Nice! I've marked this task as done:");
-        System.out.println("  " + task);
-        showLine();
-    }
-
-    /**
-     * Displays a message when a task is unmarked as not done.
-     *
-     * @param task The task that was unmarked.
-     */
-    public void showUnmarkedTask(Task task) {
-        showLine();
-        System.out.println("OK, I've marked this task as not done yet:");
-        System.out.println("  " + task);
-        showLine();
-    }
-
     /**
      * Displays an error message when loading data fails.
      *
@@ -129,52 +70,36 @@ public class Ui {
     }
 
     /**
-     * Displays the list of tasks.
+     * Displays the list of tasks, given as chunks of numbered lines.
+     * Lines go through a buffered writer, so long lists are written out in large blocks
+     * rather than one console write per task.
      *
-     * @param tasks The list of tasks to display.
+     * @param chunks The numbered task lines, a chunk at a time.
      */
-    public void showTaskList(List<Task> tasks) {
-        showLine();
-        System.out.println("Here are the tasks in your list:");
-        for (int i = 0; i < tasks.size(); i++) {
-            System.out.println((i + 1) + "." + tasks.get(i));
+    public void showTaskList(Iterator<String> chunks) {
+        showLine();
+        // Not closed, since closing it would close System.out
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out),
+                OUTPUT_BUFFER_SIZE));
+        out.println("Here are the tasks in your list:");
+        if (!chunks.hasNext()) {
+            out.println("(no tasks yet)");
         }
-        showLine();
-    }
-
-    /**
-     * Displays the list of found tasks.
-     *
-     * @param foundTasks The list of found tasks to display.
-     */
-    public void showFoundTasks(List<Task> foundTasks) {
-        showLine();
-        if (foundTasks.isEmpty()) {
-            System.out.println("No matching tasks found.");
-        } else {
-            System.out.println("Here are the matching tasks in your list:");
-            for (int i = 0; i < foundTasks.size(); i++) {
-                System.out.println((i + 1) + "." + foundTasks.get(i));
-            }
+        while (chunks.hasNext()) {
+            out.println(chunks.next());
         }
+        out.flush();
         showLine();
     }
 
     /**
-     * Displays a help message with available commands.
+     * Displays a message between separator lines.
+     *
+     * @param message The message to display.
      */
-    public void showHelp() {
+    public void showMessage(String message) {
         showLine();
-        System.out.println("Here are the commands you can use:");
-        System.out.println("  list");
-        System.out.println("  todo <description>");
-        System.out.println("  deadline <description> /by d/MM/yyyy HHmm");
-        System.out.println("  event <description> /from d/MM/yyyy HHmm /to d/MM/yyyy HHmm");
-        System.out.println("  mark <index>");
-        System.out.println("  unmark <index>");
-        System.out.println("  delete <index>");
-        System.out.println("  find <keyword>");
-        System.out.println("  bye");
+        System.out.println(message);
         showLine();
     }
 }
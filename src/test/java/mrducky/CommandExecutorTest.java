@@ -0,0 +1,121 @@
+package mrducky;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.Task;
+
+/**
+ * Tests running commands on the background command thread.
+ */
+public class CommandExecutorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void submit_manyCommands_respondsInOrder() throws Exception {
+        MrDuckyApp app = new MrDuckyApp(new Storage(tempDir.resolve("mrducky.txt")));
+        CommandExecutor executor = new CommandExecutor(app, 100, Runnable::run);
+        List<String> responses = new CopyOnWriteArrayList<>();
+
+        for (int i = 1; i <= 50; i++) {
+            assertTrue(executor.submit("todo task " + i, responses::add));
+        }
+        executor.shutdown();
+
+        assertEquals(50, responses.size());
+        for (int i = 1; i <= 50; i++) {
+            assertTrue(responses.get(i - 1).endsWith("Now you have " + i + " tasks in the list."));
+        }
+        assertEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    public void submit_queueFull_refusesCommandUntilSaveFinishes() throws Exception {
+        CountDownLatch saveStarted = new CountDownLatch(1);
+        CountDownLatch allowSave = new CountDownLatch(1);
+        Storage slowStorage = new Storage(tempDir.resolve("mrducky.txt")) {
+            @Override
+            public void saveAdded(List<Task> tasks, Task task) throws MrDuckyException {
+                saveStarted.countDown();
+                try {
+                    allowSave.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.saveAdded(tasks, task);
+            }
+        };
+        CommandExecutor executor = new CommandExecutor(new MrDuckyApp(slowStorage), 1, Runnable::run);
+        List<Boolean> busyUpdates = new CopyOnWriteArrayList<>();
+        executor.setOnBusyChanged(busyUpdates::add);
+
+        assertTrue(executor.submit("todo read book", response -> { }));
+        assertTrue(saveStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.submit("list", response -> { }));
+        assertFalse(executor.submit("list", response -> { }));
+        assertEquals(2, executor.getPendingCount());
+
+        allowSave.countDown();
+        executor.shutdown();
+
+        assertEquals(0, executor.getPendingCount());
+        assertEquals(true, busyUpdates.get(0));
+        assertEquals(false, busyUpdates.get(busyUpdates.size() - 1));
+    }
+
+    @Test
+    public void submit_whileAppLoads_runsAfterLoad() throws Exception {
+        Path file = tempDir.resolve("mrducky.txt");
+        new MrDuckyApp(new Storage(file)).getResponse("todo read book");
+        CountDownLatch allowLoad = new CountDownLatch(1);
+        CommandExecutor executor = new CommandExecutor(() -> {
+            try {
+                allowLoad.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MrDuckyApp(new Storage(file));
+        }, 10, Runnable::run);
+        List<String> responses = new CopyOnWriteArrayList<>();
+        List<MrDuckyApp> loaded = new CopyOnWriteArrayList<>();
+        executor.whenLoaded(loaded::add);
+
+        // The constructor returned before the tasks loaded
+        assertTrue(executor.submit("todo return book", responses::add));
+        assertEquals(2, executor.getPendingCount());
+        assertTrue(loaded.isEmpty());
+
+        allowLoad.countDown();
+        executor.shutdown();
+
+        assertEquals(1, loaded.size());
+        assertTrue(responses.get(0).endsWith("Now you have 2 tasks in the list."));
+        assertEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    public void submit_appFailedToLoad_respondsWithError() {
+        CommandExecutor executor = new CommandExecutor(() -> {
+            throw new IllegalStateException("broken");
+        }, 10, Runnable::run);
+        List<String> responses = new CopyOnWriteArrayList<>();
+
+        assertTrue(executor.submit("list", responses::add));
+        executor.shutdown();
+
+        assertTrue(responses.get(0).startsWith("OOPS!!!"));
+    }
+}
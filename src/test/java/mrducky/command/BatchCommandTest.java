@@ -0,0 +1,96 @@
+package mrducky.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+import mrducky.task.ToDo;
+
+/**
+ * Tests running script files of commands as one batch.
+ */
+public class BatchCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void execute_scriptWithErrors_appliesRestAndSavesOnce() throws Exception {
+        Path script = tempDir.resolve("script.txt");
+        Files.write(script, List.of("todo read book", "", "mark 1", "mark 9", "blah",
+                "deadline return book /by 2/12/2019 1800", "bye", "todo never run"));
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(new ToDo("existing"))));
+        CountingStorage storage = new CountingStorage(tempDir.resolve("mrducky.txt"));
+
+        String summary = CommandRegistry.createDefault().parse("batch " + script).execute(tasks, storage);
+
+        assertEquals(1, storage.saves);
+        assertEquals(3, tasks.getSize());
+        assertTrue(tasks.getTasks(0).isDone());
+        assertEquals("read book", tasks.getTasks(1).getDescription());
+        assertEquals(3, storage.load().size());
+        assertTrue(summary.startsWith("Batch done: 3 of 5 commands succeeded and were saved."), summary);
+        assertTrue(summary.contains("Line 4: OOPS!!! The task index provided is out of bounds."), summary);
+        assertTrue(summary.contains("Line 5: " + CommandRegistry.UNKNOWN_COMMAND_MESSAGE), summary);
+    }
+
+    @Test
+    public void execute_failedSave_leavesListUnchanged() throws Exception {
+        Path script = tempDir.resolve("script.txt");
+        Files.write(script, List.of("todo read book", "delete 1"));
+        Task existing = new ToDo("existing");
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(existing)));
+        Storage storage = new Storage(tempDir.resolve("mrducky.txt")) {
+            @Override
+            public void save(List<Task> saved) throws MrDuckyException {
+                throw new MrDuckyException("Could not write to data file");
+            }
+        };
+
+        Command batch = new BatchCommand(script, CommandRegistry.createDefault());
+
+        assertThrows(MrDuckyException.class, () -> batch.execute(tasks, storage));
+        assertEquals(List.of(existing), tasks.snapshot());
+        assertFalse(existing.isDone());
+    }
+
+    @Test
+    public void execute_missingFile_throwsMrDuckyException() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        Storage storage = new Storage(tempDir.resolve("mrducky.txt"));
+        Command batch = new BatchCommand(tempDir.resolve("missing.txt"), CommandRegistry.createDefault());
+
+        MrDuckyException e = assertThrows(MrDuckyException.class, () -> batch.execute(tasks, storage));
+        assertTrue(e.getMessage().startsWith("OOPS!!! Could not read batch file"));
+        assertFalse(Files.exists(tempDir.resolve("mrducky.txt")));
+    }
+
+    /**
+     * Storage that counts full saves.
+     */
+    private static class CountingStorage extends Storage {
+        private int saves;
+
+        CountingStorage(Path filePath) {
+            super(filePath);
+        }
+
+        @Override
+        public void save(List<Task> tasks) throws MrDuckyException {
+            saves++;
+            super.save(tasks);
+        }
+    }
+}
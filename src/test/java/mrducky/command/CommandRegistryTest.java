@@ -0,0 +1,67 @@
+package mrducky.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+import mrducky.task.TaskList;
+
+/**
+ * Tests looking up and parsing commands.
+ */
+public class CommandRegistryTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void parse_commandWordInAnyCase_returnsTypedCommand() throws MrDuckyException {
+        CommandRegistry registry = CommandRegistry.createDefault();
+
+        assertTrue(registry.parse("TODO read book") instanceof AddCommand);
+        assertTrue(registry.parse("Deadline return book /by 2/12/2019 1800") instanceof AddCommand);
+        assertTrue(registry.parse("mark 1") instanceof MarkCommand);
+        assertTrue(registry.parse("bye").isExit());
+        assertTrue(((ListCommand) registry.parse("list")).isWholeList());
+        assertFalse(((ListCommand) registry.parse("list 2")).isWholeList());
+    }
+
+    @Test
+    public void parse_unknownOrPrefixWord_throwsMrDuckyException() {
+        CommandRegistry registry = CommandRegistry.createDefault();
+
+        for (String input : new String[]{"blah", "dead line", "de", "todos x", "bye now", "help me", "läst"}) {
+            MrDuckyException e = assertThrows(MrDuckyException.class, () -> registry.parse(input));
+            assertEquals(CommandRegistry.UNKNOWN_COMMAND_MESSAGE, e.getMessage());
+        }
+    }
+
+    @Test
+    public void parse_eventEndingBeforeStart_throwsMrDuckyException() {
+        CommandRegistry registry = CommandRegistry.createDefault();
+
+        MrDuckyException e = assertThrows(MrDuckyException.class,
+                () -> registry.parse("event camp /from 5/12/2019 1800 /to 2/12/2019 1800"));
+        assertEquals("OOPS!!! An event cannot end before it starts.", e.getMessage());
+    }
+
+    @Test
+    public void register_newCommand_isDispatched() throws MrDuckyException {
+        CommandRegistry registry = CommandRegistry.createDefault();
+        registry.register("count", input -> (tasks, storage) -> "You have " + tasks.getSize() + " tasks.");
+        TaskList tasks = new TaskList(new ArrayList<>());
+        Storage storage = new Storage(tempDir.resolve("mrducky.txt"));
+
+        registry.parse("todo read book").execute(tasks, storage);
+
+        assertEquals("You have 1 tasks.", registry.parse("Count").execute(tasks, storage));
+    }
+}
@@ -0,0 +1,54 @@
+package mrducky.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.MrDuckyApp;
+import mrducky.exception.MrDuckyException;
+import mrducky.storage.Storage;
+
+/**
+ * Tests parsing and running queries.
+ */
+public class QueryCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void query_exampleTerms_returnsMatchingDeadlinesByDueTime() {
+        MrDuckyApp app = new MrDuckyApp(new Storage(tempDir.resolve("tasks.txt")));
+        app.getResponse("deadline submit report /by 20/11/2026 1800");
+        app.getResponse("deadline report draft /by 1/11/2026 0900");
+        app.getResponse("deadline final report /by 1/12/2026 0000");
+        app.getResponse("todo write report");
+        app.getResponse("deadline status report /by 2/11/2026 0900");
+        app.getResponse("mark 5");
+
+        assertEquals("Here are the tasks matching your query:\n"
+                + "1.[D][ ] report draft (by: Nov 1 2026, 9:00 AM)\n"
+                + "2.[D][ ] submit report (by: Nov 20 2026, 6:00 PM)",
+                app.getResponse("query type:D done:false due<2026-12-01 text:\"report\" sort:due limit:50"));
+        assertEquals("Here are the tasks matching your query:\n"
+                + "1.[D][ ] final report (by: Dec 1 2026, 12:00 AM)",
+                app.getResponse("query due:1/12/2026"));
+        assertEquals("Here are the tasks matching your query:\n"
+                + "1.[T][ ] write report",
+                app.getResponse("query text:\"write rep\" limit:1"));
+    }
+
+    @Test
+    public void parse_invalidTerms_throwsMrDuckyException() {
+        String[] inputs = {"query", "query type:X", "query done:maybe", "query sort:size", "query limit:0",
+            "query due<tomorrow", "query colour:red", "query text:\"open", "query due", "query type<D"};
+        for (String input : inputs) {
+            MrDuckyException e = assertThrows(MrDuckyException.class, () -> QueryCommand.parse(input), input);
+            assertTrue(e.getMessage().startsWith("OOPS!!!"), input);
+        }
+    }
+}
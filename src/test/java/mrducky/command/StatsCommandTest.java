@@ -0,0 +1,64 @@
+package mrducky.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.MrDuckyApp;
+import mrducky.metrics.Histogram;
+import mrducky.metrics.Metrics;
+import mrducky.storage.Storage;
+
+/**
+ * Tests the stats command. The metrics are shared by the whole process, so the tests only
+ * check for what they recorded themselves.
+ */
+public class StatsCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void stats_afterCommands_showsTaskCountsAndTimings() {
+        MrDuckyApp app = new MrDuckyApp(new Storage(tempDir.resolve("tasks.txt")));
+        app.getResponse("todo read book");
+        app.getResponse("deadline return book /by 2/12/2019 1800");
+        app.getResponse("mark 1");
+        app.getResponse("find book");
+
+        String stats = app.getResponse("stats");
+
+        assertTrue(stats.contains("Tasks: 1 todos, 1 deadlines, 0 events, 1 done"), stats);
+        assertTrue(stats.contains("\n  add: "), stats);
+        assertTrue(stats.contains("\n  mark: "), stats);
+        assertTrue(stats.contains("\n  find: "), stats);
+        assertTrue(stats.contains("\nSaves: "), stats);
+        assertTrue(stats.contains("\nFinds: "), stats);
+    }
+
+    @Test
+    public void streamList_wholeList_recordsListCommand() throws Exception {
+        MrDuckyApp app = new MrDuckyApp(new Storage(tempDir.resolve("tasks.txt")));
+        app.getResponse("todo read book");
+        app.getResponse("todo return book");
+        Histogram before = Metrics.getDefault().getCommandLatencies().get("list");
+        long countBefore = before == null ? 0 : before.getCount();
+        List<String> shown = new ArrayList<>();
+
+        app.streamList(app.parse("list"), 1, chunks -> chunks.forEachRemaining(shown::add));
+
+        assertEquals(2, shown.size());
+        assertEquals(countBefore + 1, Metrics.getDefault().getCommandLatencies().get("list").getCount());
+    }
+
+    @Test
+    public void parse_withArguments_throwsMrDuckyException() {
+        assertTrue(new MrDuckyApp(new Storage(tempDir.resolve("tasks.txt"))).getResponse("stats now")
+                .startsWith("OOPS!!!"));
+    }
+}
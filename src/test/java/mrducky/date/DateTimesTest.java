@@ -0,0 +1,48 @@
+package mrducky.date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests parsing and formatting dates and times.
+ */
+public class DateTimesTest {
+    @Test
+    public void parseInputDateTime_oneOrTwoDigitDay_parses() {
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateTimes.parseInputDateTime("2/12/2019 1800"));
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateTimes.parseInputDateTime("02/12/2019 1800"));
+        assertEquals(LocalDateTime.of(2020, 2, 29, 23, 59), DateTimes.parseInputDateTime("29/02/2020 2359"));
+    }
+
+    @Test
+    public void parseInputDateTime_pastEndOfMonth_matchesFormatter() {
+        // The formatter moves these to the last day of the month, and the fast path must agree
+        assertEquals(LocalDateTime.parse("31/02/2019 1200", DateTimes.INPUT_DATE_TIME),
+                DateTimes.parseInputDateTime("31/02/2019 1200"));
+    }
+
+    @Test
+    public void parseInputDateTime_invalid_throwsDateTimeParseException() {
+        for (String text : new String[]{"2/12/2019", "2/13/2019 1800", "2/12/2019 1860", "2/1/2019 1800", "tomorrow"}) {
+            assertThrows(DateTimeParseException.class, () -> DateTimes.parseInputDateTime(text));
+        }
+    }
+
+    @Test
+    public void parseInputDate_validAndInvalid() {
+        assertEquals(LocalDate.of(2019, 12, 2), DateTimes.parseInputDate("2/12/2019"));
+        assertThrows(DateTimeParseException.class, () -> DateTimes.parseInputDate("0/12/2019"));
+    }
+
+    @Test
+    public void parseIso_withAndWithoutSeconds_parses() {
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateTimes.parseIso("x2019-12-02T18:00", 1, 17));
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0, 30), DateTimes.parseIso("2019-12-02T18:00:30", 0, 19));
+    }
+}
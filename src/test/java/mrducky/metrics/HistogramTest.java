@@ -0,0 +1,50 @@
+package mrducky.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests recording values and reading back percentiles.
+ */
+public class HistogramTest {
+    @Test
+    public void getValueAtPercentile_smallValues_areExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(10, histogram.getValueAtPercentile(99));
+        assertEquals(10, histogram.getMax());
+        assertEquals(5.5, histogram.getMean());
+    }
+
+    @Test
+    public void getValueAtPercentile_wideRange_withinOneSixteenth() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        for (double percentile : new double[]{1, 25, 50, 90, 99, 99.9}) {
+            double expected = percentile * 1000 * 1000;
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected * 17 / 16, percentile + ": " + actual);
+        }
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void indexOf_bucketBounds_matchUpperBoundOf() {
+        for (long value : new long[]{0, 15, 16, 17, 31, 32, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int index = Histogram.indexOf(value);
+            assertTrue(Histogram.upperBoundOf(index) >= value, "value " + value);
+            assertTrue(index == 0 || Histogram.upperBoundOf(index - 1) < value, "value " + value);
+        }
+        assertEquals(0, new Histogram().getValueAtPercentile(50));
+    }
+}
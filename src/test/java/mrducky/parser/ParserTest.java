@@ -60,5 +60,19 @@ public class ParserTest {
         String input = "mark abc";
         assertThrows(MrDuckyException.class, () -> Parser.parseIndex(input, "mark"));
     }
-}
 
+    @Test
+    public void parsePage_noArguments_returnsFirstPageOfDefaultSize() throws MrDuckyException {
+        assertArrayEquals(new int[]{1, 50}, Parser.parsePage("list", 50));
+    }
+
+    @Test
+    public void parsePage_pageAndSize_returnsBoth() throws MrDuckyException {
+        assertArrayEquals(new int[]{3, 20}, Parser.parsePage("list 3 20", 50));
+    }
+
+    @Test
+    public void parsePage_zeroPage_throwsMrDuckyException() {
+        assertThrows(MrDuckyException.class, () -> Parser.parsePage("list 0", 50));
+    }
+}
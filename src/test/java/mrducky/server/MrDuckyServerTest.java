@@ -0,0 +1,105 @@
+package mrducky.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the HTTP server against localhost, including a load of many concurrent clients.
+ */
+public class MrDuckyServerTest {
+    @TempDir
+    Path tempDir;
+
+    private MrDuckyServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MrDuckyServer(new InetSocketAddress("127.0.0.1", 0), tempDir, 8);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void typedEndpoints_addListFindMark_returnJson() throws Exception {
+        assertEquals(201, post("/users/alice/tasks", "todo read book").statusCode());
+        assertEquals(201, post("/users/alice/tasks", "deadline return book /by 2/12/2019 1800").statusCode());
+        assertEquals(200, post("/users/alice/tasks/2/mark", "").statusCode());
+
+        HttpResponse<String> page = get("/users/alice/tasks?offset=1&limit=5");
+        assertEquals("{\"total\":2,\"tasks\":[{\"number\":2,\"id\":2,\"type\":\"deadline\","
+                + "\"description\":\"return book\",\"done\":true,\"due\":\"2019-12-02T18:00\"}]}", page.body());
+        assertTrue(get("/users/alice/tasks?keyword=READ").body().contains("\"description\":\"read book\""));
+        assertEquals("{\"total\":0,\"tasks\":[]}", get("/users/bob/tasks").body());
+        assertTrue(post("/users/bob/command", "list").body().startsWith("{\"response\":"));
+    }
+
+    @Test
+    public void badRequests_returnErrors() throws Exception {
+        assertEquals(400, post("/users/alice/tasks", "delete 1").statusCode());
+        assertEquals(400, post("/users/alice/tasks/9/mark", "").statusCode());
+        assertEquals(400, get("/users/al.ice/tasks").statusCode());
+        assertEquals(405, get("/users/alice/command").statusCode());
+        assertEquals(404, get("/users/alice/nothing").statusCode());
+        assertTrue(post("/users/alice/tasks", "todo").body().startsWith("{\"error\":\"OOPS!!!"));
+    }
+
+    @Test
+    public void loadGenerator_manyConcurrentClients_allRequestsSucceed() throws Exception {
+        int users = 20;
+        int tasksPerUser = 100;
+        // Requests in flight at once
+        Semaphore inFlight = new Semaphore(200);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < tasksPerUser; i++) {
+            for (int user = 0; user < users; user++) {
+                inFlight.acquire();
+                HttpRequest request = HttpRequest.newBuilder(uri("/users/user" + user + "/tasks"))
+                        .POST(HttpRequest.BodyPublishers.ofString("todo task " + i)).build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> inFlight.release()));
+            }
+        }
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(201, response.get().statusCode());
+        }
+        for (int user = 0; user < users; user++) {
+            assertTrue(get("/users/user" + user + "/tasks?limit=0").body().startsWith("{\"total\":" + tasksPerUser));
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+}
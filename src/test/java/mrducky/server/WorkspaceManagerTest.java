@@ -0,0 +1,106 @@
+package mrducky.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.MrDuckyApp;
+import mrducky.storage.GroupCommitStorage;
+import mrducky.storage.JournaledStorage;
+import mrducky.storage.Storage;
+
+/**
+ * Tests caching and evicting users' workspaces.
+ */
+public class WorkspaceManagerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void acquire_overCountBudget_evictsLeastRecentlyUsedAndFlushesIt() {
+        WorkspaceManager manager = new WorkspaceManager(this::groupCommitApp, 2, 1000);
+        try (WorkspaceManager.Workspace alice = manager.acquire("alice")) {
+            alice.getApp().getResponse("todo read book");
+        }
+        manager.acquire("bob").close();
+        manager.acquire("alice").close();
+        manager.acquire("carol").close();
+
+        // Bob was used least recently
+        assertEquals(2, manager.getSize());
+        assertEquals(1, manager.getHitCount());
+        assertEquals(3, manager.getMissCount());
+        assertEquals(1, manager.getEvictionCount());
+
+        manager.acquire("dave").close();
+        assertEquals(2, manager.getEvictionCount());
+        // Alice was used before Carol, so her buffered task was written out when she was evicted
+        assertEquals(1, new MrDuckyApp(new Storage(tempDir.resolve("alice.txt"))).getTaskList().getSize());
+        try (WorkspaceManager.Workspace alice = manager.acquire("alice")) {
+            assertEquals(1, alice.getApp().getTaskList().getSize());
+        }
+    }
+
+    @Test
+    public void acquire_workspacesInUse_areNotEvicted() {
+        WorkspaceManager manager = new WorkspaceManager(this::groupCommitApp, 1, 1000);
+        WorkspaceManager.Workspace alice = manager.acquire("alice");
+        WorkspaceManager.Workspace bob = manager.acquire("bob");
+        assertEquals(2, manager.getSize());
+
+        alice.close();
+        bob.close();
+        manager.acquire("carol").close();
+
+        assertEquals(1, manager.getSize());
+        assertEquals(2, manager.getEvictionCount());
+    }
+
+    @Test
+    public void acquire_overTaskBudget_evictsUntilUnderBudget() {
+        WorkspaceManager manager = new WorkspaceManager(this::groupCommitApp, 100, 3);
+        for (String user : new String[]{"alice", "bob"}) {
+            try (WorkspaceManager.Workspace workspace = manager.acquire(user)) {
+                workspace.getApp().getResponse("todo read book");
+                workspace.getApp().getResponse("todo return book");
+            }
+        }
+
+        // Four tasks are over the budget of three, so Alice's two go
+        manager.acquire("carol").close();
+
+        assertEquals(2, manager.getSize());
+        assertEquals(1, manager.getEvictionCount());
+    }
+
+    @Test
+    public void acquire_journaledWorkspaceEvicted_keepsJournaledChanges() {
+        WorkspaceManager manager = new WorkspaceManager(this::journaledApp, 1, 1000);
+        try (WorkspaceManager.Workspace alice = manager.acquire("alice")) {
+            for (int i = 0; i < 20; i++) {
+                alice.getApp().getResponse("todo task " + i);
+            }
+        }
+
+        manager.acquire("bob").close();
+
+        assertEquals(1, manager.getEvictionCount());
+        assertEquals(20, new MrDuckyApp(new JournaledStorage(tempDir.resolve("alice.txt"))).getTaskList().getSize());
+        try (WorkspaceManager.Workspace alice = manager.acquire("alice")) {
+            assertEquals(20, alice.getApp().getTaskList().getSize());
+        }
+    }
+
+    private MrDuckyApp groupCommitApp(String user) {
+        // Buffers every change, so only closing the workspace writes it out
+        return new MrDuckyApp(new GroupCommitStorage(new Storage(tempDir.resolve(user + ".txt")), 1000, 60_000));
+    }
+
+    private MrDuckyApp journaledApp(String user) {
+        // Compacts every few appends, so closing has compactions to wait for
+        return new MrDuckyApp(new JournaledStorage(tempDir.resolve(user + ".txt"), 64));
+    }
+}
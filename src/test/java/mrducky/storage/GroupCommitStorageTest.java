@@ -0,0 +1,161 @@
+package mrducky.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Tests when group commit writes buffered changes out.
+ */
+public class GroupCommitStorageTest {
+    private static final long WAIT_MILLIS = 5_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void saveAdded_batchSizeReached_writesBatch() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        GroupCommitStorage storage = new GroupCommitStorage(new Storage(file), 3, 60_000);
+        List<Task> tasks = new ArrayList<>();
+
+        add(storage, tasks, "read book");
+        add(storage, tasks, "return book");
+        assertEquals(2, storage.getPendingCount());
+        assertEquals(0, new Storage(file).load().size());
+
+        add(storage, tasks, "buy milk");
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(3, new Storage(file).load().size());
+        storage.close();
+    }
+
+    @Test
+    public void saveAdded_intervalPassesWithNoMoreChanges_writesChanges() throws Exception {
+        Path file = tempDir.resolve("mrducky.txt");
+        GroupCommitStorage storage = new GroupCommitStorage(new Storage(file), 1000, 20);
+        List<Task> tasks = new ArrayList<>();
+
+        add(storage, tasks, "read book");
+
+        assertEquals(1, awaitSavedCount(file, 1));
+        assertEquals(0, storage.getPendingCount());
+        storage.close();
+    }
+
+    @Test
+    public void saveAdded_timerFiresWhileMutationLockHeld_waitsForLock() throws Exception {
+        Path file = tempDir.resolve("mrducky.txt");
+        GroupCommitStorage storage = new GroupCommitStorage(new Storage(file), 1000, 20);
+        Object mutationLock = new Object();
+        storage.setMutationLock(mutationLock);
+        List<Task> tasks = new ArrayList<>();
+
+        synchronized (mutationLock) {
+            add(storage, tasks, "read book");
+            Thread.sleep(200);
+            // Still in the middle of a mutation, so the timer has not read the tasks yet
+            assertEquals(1, storage.getPendingCount());
+            add(storage, tasks, "return book");
+        }
+
+        assertEquals(2, awaitSavedCount(file, 2));
+        storage.close();
+    }
+
+    @Test
+    public void close_changesBuffered_writesChanges() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        GroupCommitStorage storage = new GroupCommitStorage(new Storage(file), 1000, 60_000);
+        List<Task> tasks = new ArrayList<>();
+        add(storage, tasks, "read book");
+        add(storage, tasks, "return book");
+
+        storage.close();
+
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(2, new Storage(file).load().size());
+    }
+
+    @Test
+    public void flush_journaledDelegate_appendsEachChangeWithoutRewritingSnapshot() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        JournaledStorage journal = new JournaledStorage(file, Long.MAX_VALUE);
+        GroupCommitStorage storage = new GroupCommitStorage(journal, 1000, 60_000);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        storage.save(tasks);
+        SaveMetrics metrics = storage.getSaveMetrics();
+        long snapshotBytes = metrics.getBytes();
+        long snapshotWrites = metrics.getCount();
+
+        for (int i = 0; i < 10; i++) {
+            add(storage, tasks, "new task " + i);
+        }
+        tasks.get(3).mark();
+        storage.saveUpdated(tasks, 3);
+        storage.flush();
+
+        assertEquals(snapshotWrites + 11, metrics.getCount());
+        assertTrue(metrics.getBytes() - snapshotBytes < snapshotBytes / 10);
+        List<Task> loaded = new JournaledStorage(file).load();
+        assertEquals(1010, loaded.size());
+        assertTrue(loaded.get(3).isDone());
+        assertEquals("new task 9", loaded.get(1009).getDescription());
+        storage.close();
+    }
+
+    @Test
+    public void flush_afterDelete_savesWholeList() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        GroupCommitStorage storage = new GroupCommitStorage(new JournaledStorage(file), 1000, 60_000);
+        List<Task> tasks = new ArrayList<>();
+        add(storage, tasks, "read book");
+        add(storage, tasks, "return book");
+        add(storage, tasks, "buy milk");
+        tasks.get(2).mark();
+        storage.saveUpdated(tasks, 2);
+        tasks.remove(1);
+        storage.saveDeleted(tasks, 1);
+
+        storage.flush();
+
+        List<Task> loaded = new JournaledStorage(file).load();
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertEquals("buy milk", loaded.get(1).getDescription());
+        assertTrue(loaded.get(1).isDone());
+        storage.close();
+    }
+
+    private static void add(Storage storage, List<Task> tasks, String description) throws MrDuckyException {
+        Task task = new ToDo(description);
+        tasks.add(task);
+        storage.saveAdded(tasks, task);
+    }
+
+    /**
+     * Waits until the file holds the expected number of tasks, or the wait times out, and returns how many it holds.
+     */
+    private static int awaitSavedCount(Path file, int expected) throws MrDuckyException, InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        int count = new Storage(file).load().size();
+        while (count != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            count = new Storage(file).load().size();
+        }
+        return count;
+    }
+}
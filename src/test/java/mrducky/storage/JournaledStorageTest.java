@@ -0,0 +1,110 @@
+package mrducky.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Tests the journaled storage mode.
+ */
+public class JournaledStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void load_afterJournaledMutations_replaysJournal() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        JournaledStorage storage = new JournaledStorage(file);
+        List<Task> tasks = storage.load();
+        for (String description : new String[]{"read book", "return book", "buy milk"}) {
+            Task task = new ToDo(description);
+            tasks.add(task);
+            storage.saveAdded(tasks, task);
+        }
+        tasks.get(1).mark();
+        storage.saveUpdated(tasks, 1);
+        tasks.remove(0);
+        storage.saveDeleted(tasks, 0);
+
+        List<Task> loaded = new JournaledStorage(file).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("return book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    @Test
+    public void load_afterCompaction_keepsAllTasks() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        JournaledStorage storage = new JournaledStorage(file, 64);
+        List<Task> tasks = storage.load();
+        for (int i = 0; i < 100; i++) {
+            Task task = new ToDo("task " + i);
+            tasks.add(task);
+            storage.saveAdded(tasks, task);
+        }
+        storage.awaitCompaction();
+
+        List<Task> loaded = new JournaledStorage(file).load();
+
+        assertEquals(100, loaded.size());
+        assertEquals("task 99", loaded.get(99).getDescription());
+    }
+
+    @Test
+    public void load_tornFinalRecord_dropsRecordAndTruncatesJournal() throws IOException, MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        JournaledStorage storage = new JournaledStorage(file);
+        List<Task> tasks = storage.load();
+        for (int i = 0; i < 13; i++) {
+            Task task = new ToDo("task " + i);
+            tasks.add(task);
+            storage.saveAdded(tasks, task);
+        }
+        Path journal = tempDir.resolve("mrducky.txt.journal.0");
+        // What a crash part way through appending DELETE | 12 leaves behind
+        Files.write(journal, "DELETE | 1".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        JournaledStorage reopened = new JournaledStorage(file);
+        List<Task> loaded = reopened.load();
+        assertEquals(13, loaded.size());
+        assertEquals("task 1", loaded.get(1).getDescription());
+
+        Task task = new ToDo("task 13");
+        loaded.add(task);
+        reopened.saveAdded(loaded, task);
+        List<Task> reloaded = new JournaledStorage(file).load();
+        assertEquals(14, reloaded.size());
+        assertEquals("task 13", reloaded.get(13).getDescription());
+    }
+
+    @Test
+    public void load_tornAddRecord_dropsTruncatedTask() throws IOException, MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        JournaledStorage storage = new JournaledStorage(file);
+        List<Task> tasks = storage.load();
+        Task task = new ToDo("read book");
+        tasks.add(task);
+        storage.saveAdded(tasks, task);
+        Path journal = tempDir.resolve("mrducky.txt.journal.0");
+        Files.write(journal, "ADD | T | 0 | return bo".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        List<Task> loaded = new JournaledStorage(file).load();
+
+        assertEquals(1, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+    }
+}
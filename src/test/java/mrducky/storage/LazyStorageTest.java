@@ -0,0 +1,138 @@
+package mrducky.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.MrDuckyApp;
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Deadline;
+import mrducky.task.Task;
+import mrducky.task.TaskList;
+import mrducky.task.ToDo;
+
+/**
+ * Tests the lazy storage mode.
+ */
+public class LazyStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void loadTaskList_matchesFullLoad() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        new Storage(file).save(generate(10));
+
+        TaskList tasks = new LazyStorage(file).loadTaskList();
+        List<Task> expected = new Storage(file).load();
+
+        assertEquals(expected.size(), tasks.getSize());
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            assertEquals(expected.get(i).toString(), tasks.getTasks(i).toString());
+        }
+        assertEquals(1, tasks.find("return").size());
+    }
+
+    @Test
+    public void saveUpdatedAndAdded_beforeDelete_writeInPlaceAndMatchFullSave() throws Exception {
+        Path file = tempDir.resolve("mrducky.txt");
+        new Storage(file).save(generate(10));
+        long sizeBefore = Files.size(file);
+
+        LazyStorage storage = new LazyStorage(file);
+        TaskList tasks = storage.loadTaskList();
+        tasks.markTask(7);
+        storage.saveUpdated(tasks.asList(), 7);
+        assertEquals(sizeBefore, Files.size(file));
+        Task added = new ToDo("walk dog");
+        tasks.addTask(added);
+        storage.saveAdded(tasks.asList(), added);
+        tasks.markTask(10);
+        storage.saveUpdated(tasks.asList(), 10);
+
+        Path expected = tempDir.resolve("expected.txt");
+        new Storage(expected).save(tasks.snapshot());
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(file));
+        assertTrue(storage.getSaveMetrics().getBytes() < sizeBefore, "file should never be rewritten");
+    }
+
+    @Test
+    public void saveDeleted_rewritesFileAndLaterChangesStillSave() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        new Storage(file).save(generate(10));
+
+        LazyStorage storage = new LazyStorage(file);
+        TaskList tasks = storage.loadTaskList();
+        tasks.deleteTask(3);
+        storage.saveDeleted(tasks.asList(), 3);
+        tasks.markTask(3);
+        storage.saveUpdated(tasks.asList(), 3);
+
+        List<Task> loaded = new Storage(file).load();
+        assertEquals(9, loaded.size());
+        assertEquals("task 4", loaded.get(3).getDescription());
+        assertTrue(loaded.get(3).isDone());
+    }
+
+    @Test
+    public void loadTaskList_malformedLines_skipsThemLikeFullLoad() throws Exception {
+        Path file = tempDir.resolve("mrducky.txt");
+        Files.write(file, List.of("T | 0 | read book", "D | 0 | return book | 2019-13-02T18:00",
+                "E | 1 | camp | 2019-12-02T18:00", "D | 1 | submit ip | 2019-12-02T18:00"));
+
+        LazyStorage storage = new LazyStorage(file);
+        TaskList tasks = storage.loadTaskList();
+        List<Task> expected = new Storage(file).load();
+
+        assertEquals(2, expected.size());
+        assertEquals(expected.size(), tasks.getSize());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), tasks.getTasks(i).toString());
+        }
+    }
+
+    @Test
+    public void loadTaskList_linesAcrossScanReads_matchesFullLoad() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        // Well over the megabyte the scan reads at a time
+        new Storage(file).save(generate(60_000));
+
+        TaskList tasks = new LazyStorage(file).loadTaskList();
+        List<Task> expected = new Storage(file).load();
+
+        assertEquals(expected.size(), tasks.getSize());
+        for (int i = 0; i < expected.size(); i += 997) {
+            assertEquals(expected.get(i).toString(), tasks.getTasks(i).toString());
+        }
+        assertEquals(expected.get(expected.size() - 1).toString(), tasks.getTasks(expected.size() - 1).toString());
+    }
+
+    @Test
+    public void getResponse_fileTruncatedBeforeRead_reportsError() throws Exception {
+        Path file = tempDir.resolve("mrducky.txt");
+        new Storage(file).save(generate(10));
+        MrDuckyApp app = new MrDuckyApp(new LazyStorage(file));
+
+        Files.write(file, new byte[0]);
+
+        assertEquals("Could not read data file: " + file, app.getResponse("list"));
+    }
+
+    private static List<Task> generate(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        tasks.set(count / 2, new Deadline("return book", LocalDateTime.of(2019, 12, 2, 18, 0)));
+        return tasks;
+    }
+}
@@ -0,0 +1,146 @@
+package mrducky.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Tests the segmented storage mode.
+ */
+public class SegmentedStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void load_afterSave_joinsSegmentsInOrder() throws MrDuckyException {
+        Path directory = tempDir.resolve("mrducky.segments");
+        new SegmentedStorage(directory, null, 4).save(generate(10));
+
+        SegmentedStorage storage = new SegmentedStorage(directory, null, 4);
+        List<Task> loaded = storage.load();
+
+        assertEquals(3, storage.getSegmentCount());
+        assertEquals(10, loaded.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("task " + i, loaded.get(i).getDescription());
+        }
+    }
+
+    @Test
+    public void saveUpdatedAndDeleted_rewriteOnlyAffectedSegment() throws Exception {
+        Path directory = tempDir.resolve("mrducky.segments");
+        SegmentedStorage storage = new SegmentedStorage(directory, null, 4);
+        List<Task> tasks = new ArrayList<>(generate(10));
+        storage.save(tasks);
+        List<String> before = Files.readAllLines(storage.getFilePath());
+
+        tasks.get(5).mark();
+        storage.saveUpdated(tasks, 5);
+        tasks.remove(9);
+        storage.saveDeleted(tasks, 9);
+
+        List<String> after = Files.readAllLines(storage.getFilePath());
+        assertEquals(before.get(1), after.get(1));
+        assertFalse(before.get(2).equals(after.get(2)));
+        assertTrue(after.get(3).endsWith(" 1"));
+        try (var files = Files.list(directory)) {
+            // The manifest plus one file per segment, with the replaced ones deleted
+            assertEquals(4, files.count());
+        }
+        List<Task> loaded = new SegmentedStorage(directory, null, 4).load();
+        assertEquals(9, loaded.size());
+        assertTrue(loaded.get(5).isDone());
+    }
+
+    @Test
+    public void save_afterDeleteFromFirstSegment_keepsLaterSegments() throws Exception {
+        Path directory = tempDir.resolve("mrducky.segments");
+        SegmentedStorage storage = new SegmentedStorage(directory, null, 4);
+        List<Task> tasks = new ArrayList<>(generate(10));
+        storage.save(tasks);
+        List<String> before = Files.readAllLines(storage.getFilePath());
+
+        tasks.remove(1);
+        storage.save(tasks);
+
+        List<String> after = Files.readAllLines(storage.getFilePath());
+        assertFalse(before.get(1).equals(after.get(1)));
+        assertTrue(after.get(1).endsWith(" 3"));
+        assertEquals(before.subList(2, 4), after.subList(2, 4));
+        List<Task> loaded = new SegmentedStorage(directory, null, 4).load();
+        assertEquals(9, loaded.size());
+        assertEquals("task 2", loaded.get(1).getDescription());
+    }
+
+    @Test
+    public void saveAdded_lastSegmentNotFull_appendsToItsFile() throws Exception {
+        Path directory = tempDir.resolve("mrducky.segments");
+        SegmentedStorage storage = new SegmentedStorage(directory, null, 4);
+        List<Task> tasks = new ArrayList<>(generate(5));
+        storage.save(tasks);
+        String lastName = Files.readAllLines(storage.getFilePath()).get(2).split(" ")[0];
+
+        Task task = new ToDo("task 5");
+        tasks.add(task);
+        storage.saveAdded(tasks, task);
+
+        assertEquals(lastName + " 2", Files.readAllLines(storage.getFilePath()).get(2));
+        assertEquals(2, Files.readAllLines(directory.resolve(lastName)).size());
+        List<Task> loaded = new SegmentedStorage(directory, null, 4).load();
+        assertEquals(6, loaded.size());
+        assertEquals("task 5", loaded.get(5).getDescription());
+    }
+
+    @Test
+    public void load_taskAppendedButNotListed_dropsIt() throws Exception {
+        Path directory = tempDir.resolve("mrducky.segments");
+        new SegmentedStorage(directory, null, 4).save(generate(5));
+        String lastName = Files.readAllLines(directory.resolve("manifest")).get(2).split(" ")[0];
+        // What a crash between appending a task and writing the manifest leaves behind
+        Files.writeString(directory.resolve(lastName), "T | 0 | unlisted" + System.lineSeparator(),
+                StandardOpenOption.APPEND);
+
+        SegmentedStorage storage = new SegmentedStorage(directory, null, 4);
+        List<Task> tasks = storage.load();
+        assertEquals(5, tasks.size());
+        Task task = new ToDo("task 5");
+        tasks.add(task);
+        storage.saveAdded(tasks, task);
+
+        List<Task> loaded = new SegmentedStorage(directory, null, 4).load();
+        assertEquals(6, loaded.size());
+        assertEquals("task 5", loaded.get(5).getDescription());
+    }
+
+    @Test
+    public void load_legacyTextFile_convertsIt() throws MrDuckyException {
+        Path textFile = tempDir.resolve("mrducky.txt");
+        new Storage(textFile).save(generate(5));
+
+        List<Task> loaded = new SegmentedStorage(tempDir.resolve("mrducky.segments"), textFile, 2).load();
+
+        assertEquals(5, loaded.size());
+        assertEquals(5, new SegmentedStorage(tempDir.resolve("mrducky.segments"), null, 2).load().size());
+    }
+
+    private static List<Task> generate(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        return tasks;
+    }
+}
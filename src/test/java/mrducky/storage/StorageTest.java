@@ -0,0 +1,225 @@
+package mrducky.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mrducky.exception.MrDuckyException;
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+import mrducky.task.ToDo;
+
+/**
+ * Tests the plain storage mode under each durability, writing only what changed, and the binary file layout.
+ */
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void save_eachDurability_replacesFileAndLeavesNoTempFile() throws Exception {
+        for (Durability durability : Durability.values()) {
+            Path file = tempDir.resolve(durability + "/mrducky.txt");
+            Storage storage = new Storage(file);
+            storage.setDurability(durability);
+            Task done = new ToDo("return book");
+            done.mark();
+
+            storage.save(List.of(new ToDo("read book"), new ToDo("buy milk"), new ToDo("walk dog")));
+            storage.save(List.of(new ToDo("read book"), done));
+
+            List<Task> loaded = new Storage(file).load();
+            assertEquals(2, loaded.size(), durability.toString());
+            assertTrue(loaded.get(1).isDone(), durability.toString());
+            assertFalse(Files.exists(Storage.tempFileFor(file)), durability.toString());
+        }
+    }
+
+    @Test
+    public void save_recordsSaveMetrics() throws MrDuckyException {
+        Path file = tempDir.resolve("mrducky.txt");
+        JournaledStorage storage = new JournaledStorage(file);
+        storage.setDurability(Durability.FSYNC);
+
+        storage.save(List.of(new ToDo("read book")));
+        storage.saveAdded(List.of(), new ToDo("return book"));
+
+        SaveMetrics metrics = storage.getSaveMetrics();
+        assertEquals(2, metrics.getCount());
+        assertTrue(metrics.getBytes() > 0);
+        assertTrue(metrics.getMaxMicros() >= metrics.getMeanMicros());
+    }
+
+    @Test
+    public void saveUpdatedAndAdded_afterLoad_writesOnlyChangesAndMatchesFullSave() throws Exception {
+        for (boolean isBinary : new boolean[]{false, true}) {
+            Path file = tempDir.resolve(isBinary ? "mrducky.bin" : "mrducky.txt");
+            Storage initial = isBinary ? new BinaryStorage(file) : new Storage(file);
+            initial.save(List.of(new ToDo("read book"), new Deadline("return book",
+                    LocalDateTime.of(2019, 12, 2, 18, 0)), new ToDo("buy milk \u00fcn\u00efcode")));
+            long sizeBefore = Files.size(file);
+
+            Storage storage = isBinary ? new BinaryStorage(file) : new Storage(file);
+            List<Task> tasks = new ArrayList<>(storage.load());
+            tasks.get(1).mark();
+            storage.saveUpdated(tasks, 1);
+            assertEquals(sizeBefore, Files.size(file));
+            assertEquals(1, storage.getSaveMetrics().getBytes());
+            tasks.get(2).mark();
+            Task added = new ToDo("walk dog");
+            tasks.add(added);
+            storage.saveAdded(tasks, added);
+            tasks.get(0).mark();
+            storage.save(tasks);
+
+            Path expected = tempDir.resolve(isBinary ? "expected.bin" : "expected.txt");
+            (isBinary ? new BinaryStorage(expected) : new Storage(expected)).save(tasks);
+            assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(file));
+            assertTrue(storage.getSaveMetrics().getBytes() < sizeBefore, "file should never be rewritten");
+        }
+    }
+
+    @Test
+    public void binarySave_writesHeaderRecordsAndPatches() throws Exception {
+        Path file = tempDir.resolve("mrducky.bin");
+        LocalDateTime due = LocalDateTime.of(2019, 12, 2, 18, 0);
+        LocalDateTime end = LocalDateTime.of(2019, 12, 3, 9, 30);
+        BinaryStorage storage = new BinaryStorage(file);
+        List<Task> tasks = new ArrayList<>(List.of(new ToDo("r\u00e9ad"), new Deadline("return book", due),
+                new Event("camp", due, end)));
+        tasks.get(1).mark();
+        storage.save(tasks);
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(0x4D444B42, buffer.getInt(0));
+        assertEquals(1, buffer.getShort(4));
+        assertEquals(3, buffer.getInt(8));
+        int todo = BinaryStorage.HEADER_BYTES;
+        assertEquals('T', buffer.get(todo));
+        assertEquals(0, buffer.get(todo + BinaryStorage.DONE_OFFSET));
+        assertEquals(5, buffer.getInt(todo + 4));
+        assertEquals(0, buffer.getLong(todo + 8));
+        int deadline = todo + BinaryStorage.RECORD_HEADER_BYTES + 5;
+        assertEquals('D', buffer.get(deadline));
+        assertEquals(1, buffer.get(deadline + BinaryStorage.DONE_OFFSET));
+        assertEquals(due.toEpochSecond(ZoneOffset.UTC), buffer.getLong(deadline + 8));
+        int event = deadline + BinaryStorage.RECORD_HEADER_BYTES + "return book".length();
+        assertEquals('E', buffer.get(event));
+        assertEquals(due.toEpochSecond(ZoneOffset.UTC), buffer.getLong(event + 8));
+        assertEquals(end.toEpochSecond(ZoneOffset.UTC), buffer.getLong(event + 16));
+        assertEquals(event + BinaryStorage.RECORD_HEADER_BYTES + "camp".length(), buffer.limit());
+
+        BinaryStorage reopened = new BinaryStorage(file);
+        List<Task> loaded = new ArrayList<>(reopened.load());
+        assertEquals(renderedOf(tasks), renderedOf(loaded));
+        loaded.get(0).mark();
+        reopened.saveUpdated(loaded, 0);
+        Task added = new ToDo("walk dog");
+        loaded.add(added);
+        reopened.saveAdded(loaded, added);
+
+        buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(1, buffer.get(todo + BinaryStorage.DONE_OFFSET));
+        assertEquals(4, buffer.getInt(8));
+        assertEquals(renderedOf(loaded), renderedOf(new BinaryStorage(file).load()));
+    }
+
+    @Test
+    public void binaryLoad_truncatedFile_keepsCompleteRecordsAndRewritesOnChange() throws Exception {
+        Path file = tempDir.resolve("mrducky.bin");
+        new BinaryStorage(file).save(List.of(new ToDo("read book"), new ToDo("return book"), new ToDo("buy milk")));
+        byte[] bytes = Files.readAllBytes(file);
+        // Cut the last record part way through its description
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        BinaryStorage storage = new BinaryStorage(file);
+        List<Task> loaded = new ArrayList<>(storage.load());
+        assertEquals(List.of("read book", "return book"), descriptionsOf(loaded));
+        Task added = new ToDo("walk dog");
+        loaded.add(added);
+        storage.saveAdded(loaded, added);
+
+        assertEquals(List.of("read book", "return book", "walk dog"), descriptionsOf(new BinaryStorage(file).load()));
+    }
+
+    @Test
+    public void binaryLoad_timeOutOfRange_skipsRecord() throws Exception {
+        Path file = tempDir.resolve("mrducky.bin");
+        new BinaryStorage(file).save(List.of(new Deadline("return book", LocalDateTime.of(2019, 12, 2, 18, 0)),
+                new ToDo("read book")));
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        buffer.putLong(BinaryStorage.HEADER_BYTES + 8, Long.MAX_VALUE);
+        Files.write(file, buffer.array());
+
+        assertEquals(List.of("read book"), descriptionsOf(new BinaryStorage(file).load()));
+    }
+
+    @Test
+    public void binaryLoad_fileOver2Gb_throwsMrDuckyException() throws Exception {
+        Path file = tempDir.resolve("mrducky.bin");
+        new BinaryStorage(file).save(List.of(new ToDo("read book")));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            // Sparse, so this takes no disk space
+            raf.setLength(Integer.MAX_VALUE + 1L);
+        }
+
+        assertThrows(MrDuckyException.class, () -> new BinaryStorage(file).load());
+    }
+
+    @Test
+    public void binarySave_afterLoad_replacesFile() throws Exception {
+        Path file = tempDir.resolve("mrducky.bin");
+        new BinaryStorage(file).save(List.of(new ToDo("read book"), new ToDo("return book")));
+        BinaryStorage storage = new BinaryStorage(file);
+        List<Task> loaded = new ArrayList<>(storage.load());
+
+        loaded.remove(0);
+        storage.save(loaded);
+
+        assertEquals(List.of("return book"), descriptionsOf(new BinaryStorage(file).load()));
+    }
+
+    @Test
+    public void binaryLoad_legacyTextFile_convertsThroughThisStorage() throws Exception {
+        Path textFile = tempDir.resolve("mrducky.txt");
+        Path file = tempDir.resolve("mrducky.bin");
+        new Storage(textFile).save(List.of(new ToDo("read book")));
+        BinaryStorage storage = new BinaryStorage(file, textFile);
+        storage.setDurability(Durability.NONE);
+
+        assertEquals(List.of("read book"), descriptionsOf(storage.load()));
+        assertEquals(1, storage.getSaveMetrics().getCount());
+    }
+
+    private static List<String> descriptionsOf(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.getDescription());
+        }
+        return descriptions;
+    }
+
+    private static List<String> renderedOf(List<Task> tasks) {
+        List<String> rendered = new ArrayList<>();
+        for (Task task : tasks) {
+            rendered.add(task.toString());
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,49 @@
+package mrducky.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import mrducky.task.Deadline;
+import mrducky.task.Event;
+import mrducky.task.Task;
+
+/**
+ * Tests parsing of stored task lines.
+ */
+public class TaskLineParserTest {
+    private final TaskLineParser parser = new TaskLineParser();
+
+    @Test
+    public void parse_deadline_returnsDeadlineWithDueDate() {
+        Task task = parser.parse("D | 1 | return book | 2019-12-02T18:00");
+
+        assertTrue(task instanceof Deadline);
+        assertTrue(task.isDone());
+        assertEquals("return book", task.getDescription());
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), ((Deadline) task).getDueDate());
+    }
+
+    @Test
+    public void parse_eventWithExtraSpaces_trimsAroundPipes() {
+        Task task = parser.parse("E|0|  project meeting   |2026-02-07T14:00|2026-02-07T15:30:45");
+
+        assertTrue(task instanceof Event);
+        assertEquals("project meeting", task.getDescription());
+        assertEquals(LocalDateTime.of(2026, 2, 7, 15, 30, 45), ((Event) task).getToTime());
+    }
+
+    @Test
+    public void parse_malformedLines_returnsNull() {
+        assertNull(parser.parse(""));
+        assertNull(parser.parse("T | 1"));
+        assertNull(parser.parse("T | 1 | "));
+        assertNull(parser.parse("X | 0 | unknown type"));
+        assertNull(parser.parse("D | 0 | no due date"));
+        assertNull(parser.parse("D | 0 | bad date | 2019-13-02T18:00"));
+    }
+}
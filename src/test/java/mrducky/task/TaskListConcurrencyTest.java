@@ -0,0 +1,128 @@
+package mrducky.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Stress tests task list operations running on many threads at once.
+ */
+public class TaskListConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 2_000;
+
+    @Test
+    public void addTask_concurrentWriters_keepsEveryTaskWithUniqueIds() throws Exception {
+        TaskList tasks = new TaskList(new ArrayList<>());
+
+        runConcurrently(worker -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                Task task = new ToDo("worker" + worker + " item " + i);
+                tasks.addTask(task);
+                if (i % 2 == 0) {
+                    task.mark();
+                }
+                // Readers run alongside writers and must never see a torn state
+                tasks.find("worker" + worker);
+                tasks.snapshot();
+            }
+        });
+
+        assertEquals(THREADS * OPERATIONS, tasks.getSize());
+        Set<Long> ids = tasks.snapshot().stream().map(Task::getId).collect(Collectors.toSet());
+        assertEquals(THREADS * OPERATIONS, ids.size());
+        for (int worker = 0; worker < THREADS; worker++) {
+            List<Task> found = tasks.find("worker" + worker + " ");
+            assertEquals(OPERATIONS, found.size());
+            assertEquals(OPERATIONS / 2, found.stream().filter(Task::isDone).count());
+        }
+    }
+
+    @Test
+    public void deleteTask_concurrentDeleters_removesEachTaskExactlyOnce() throws Exception {
+        List<Task> initial = new ArrayList<>();
+        for (int i = 0; i < THREADS * OPERATIONS; i++) {
+            initial.add(new ToDo("task " + i));
+        }
+        TaskList tasks = new TaskList(initial);
+        Set<Task> deleted = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(worker -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                assertTrue(deleted.add(tasks.deleteTask(0)));
+            }
+        });
+
+        assertEquals(THREADS * OPERATIONS, deleted.size());
+        assertEquals(0, tasks.getSize());
+        assertTrue(tasks.find("task").isEmpty());
+    }
+
+    @Test
+    public void mixedOperations_concurrentThreads_keepIndexesInSyncWithList() throws Exception {
+        TaskList tasks = new TaskList(new ArrayList<>());
+
+        runConcurrently(worker -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int choice = random.nextInt(4);
+                if (choice == 0) {
+                    try {
+                        tasks.deleteTask(0);
+                    } catch (IndexOutOfBoundsException e) {
+                        // Another thread emptied the list first
+                    }
+                } else if (choice == 1) {
+                    tasks.find("shared");
+                } else {
+                    tasks.addTask(new ToDo("shared " + worker + "-" + i));
+                }
+            }
+        });
+
+        List<Task> remaining = tasks.snapshot();
+        assertEquals(remaining, tasks.find("shared"));
+        for (Task task : remaining) {
+            assertEquals(task, tasks.getById(task.getId()));
+        }
+    }
+
+    private static void runConcurrently(Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int workerNumber = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                worker.run(workerNumber);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Work done by one of the concurrent threads.
+     */
+    private interface Worker {
+        void run(int worker);
+    }
+}
@@ -1,9 +1,14 @@
 package mrducky.task;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -34,4 +39,197 @@ public class TaskListTest {
 
         assertFalse(task.isDone());
     }
+
+    @Test
+    public void find_keywordInAnyCase_returnsMatchesInListOrder() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        Task first = new ToDo("Read BOOK");
+        Task second = new ToDo("buy milk");
+        Task third = new ToDo("return book to library");
+        tasks.addTask(first);
+        tasks.addTask(second);
+        tasks.addTask(third);
+
+        assertEquals(List.of(first, third), tasks.find("Book"));
+        assertEquals(List.of(first, third), tasks.find("oK"));
+        assertTrue(tasks.find("books").isEmpty());
+    }
+
+    @Test
+    public void find_afterDelete_omitsDeletedTask() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        tasks.addTask(new ToDo("read book"));
+        Task kept = new ToDo("return book");
+        tasks.addTask(kept);
+
+        tasks.deleteTask(0);
+
+        assertEquals(List.of(kept), tasks.find("book"));
+    }
+
+    @Test
+    public void find_afterCompaction_returnsLiveMatchesInListOrder() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tasks.addTask(new ToDo((i % 2 == 0 ? "Read" : "write") + " book " + i));
+        }
+        // Enough deletes to compact the slots, which rebuilds the keyword index
+        for (int i = 0; i < 200; i++) {
+            tasks.deleteTask(0);
+        }
+        for (Task task : tasks.snapshot()) {
+            if (task.getDescription().startsWith("Read")) {
+                expected.add(task);
+            }
+        }
+        tasks.addTask(new ToDo("read book again"));
+
+        List<Task> found = tasks.find("READ b");
+        assertEquals(expected, found.subList(0, found.size() - 1));
+        assertEquals("read book again", found.get(found.size() - 1).getDescription());
+        assertEquals(expected.size() + 1, tasks.find("re").size());
+    }
+
+    @Test
+    public void deleteTask_compactsSlots_keepsOtherTasksFindable() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 0; i < 200; i++) {
+            tasks.addTask(new ToDo("task" + i + "x"));
+        }
+        for (int i = 0; i < 100; i++) {
+            tasks.deleteTask(tasks.getSize() - 1);
+        }
+        // This delete compacts the slots, so the deleted task's slot now holds another task
+        tasks.deleteTask(0);
+
+        assertEquals(1, tasks.find("task1x").size());
+        assertEquals("task1x", tasks.find("task1x").get(0).getDescription());
+        assertEquals(99, tasks.find("task").size());
+    }
+
+    @Test
+    public void findOn_deadlinesAndEvents_returnsTasksOnThatDate() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        Task dueBefore = new Deadline("submit ip", LocalDateTime.of(2026, 2, 6, 23, 59));
+        Task dueOn = new Deadline("return book", LocalDateTime.of(2026, 2, 7, 10, 0));
+        Task spanning = new Event("camp", LocalDateTime.of(2026, 2, 5, 9, 0), LocalDateTime.of(2026, 2, 8, 17, 0));
+        Task later = new Event("meeting", LocalDateTime.of(2026, 2, 8, 14, 0), LocalDateTime.of(2026, 2, 8, 15, 0));
+        tasks.addTask(dueBefore);
+        tasks.addTask(dueOn);
+        tasks.addTask(spanning);
+        tasks.addTask(later);
+
+        assertEquals(List.of(dueOn, spanning), tasks.findOn(LocalDate.of(2026, 2, 7)));
+
+        tasks.deleteTask(2);
+
+        assertEquals(List.of(dueOn), tasks.findOn(LocalDate.of(2026, 2, 7)));
+        assertEquals(List.of(later), tasks.findOverlapping(LocalDateTime.of(2026, 2, 8, 0, 0),
+                LocalDateTime.of(2026, 2, 9, 0, 0)));
+    }
+
+    @Test
+    public void findDueBetween_boundsWithFractionsOfSeconds_comparesWholeSeconds() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        Task due = new Deadline("submit ip", LocalDateTime.of(2026, 2, 7, 10, 0));
+        tasks.addTask(due);
+        LocalDateTime dueTime = LocalDateTime.of(2026, 2, 7, 10, 0);
+
+        assertEquals(List.of(due), tasks.findDueBetween(dueTime.minusNanos(1), dueTime.plusNanos(1)));
+        assertTrue(tasks.findDueBetween(dueTime.plusNanos(1), dueTime.plusSeconds(1)).isEmpty());
+        assertTrue(tasks.findDueBetween(dueTime.minusSeconds(1), dueTime.minusNanos(1)).isEmpty());
+        assertTrue(tasks.findOverlapping(dueTime.plusNanos(1), dueTime.plusHours(1)).isEmpty());
+    }
+
+    @Test
+    public void deleteTask_manyDeletes_keepsPositionsInOrder() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        List<Task> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), tasks.deleteTask(index));
+            } else {
+                Task task = new ToDo("task " + i);
+                expected.add(task);
+                tasks.addTask(task);
+            }
+        }
+
+        assertEquals(expected.size(), tasks.getSize());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tasks.getTasks(i));
+        }
+        assertEquals(expected, tasks.snapshot());
+    }
+
+    @Test
+    public void getRange_afterDeletes_returnsLiveTasksInOrder() {
+        List<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            initial.add(new ToDo("task " + i));
+        }
+        TaskList tasks = new TaskList(initial);
+        tasks.deleteTask(2);
+        tasks.deleteTask(2);
+
+        assertEquals(List.of(initial.get(1), initial.get(4), initial.get(5)), tasks.getRange(1, 4));
+        assertEquals(List.of(initial.get(8), initial.get(9)), tasks.getRange(6, 20));
+        assertTrue(tasks.getRange(8, 8).isEmpty());
+    }
+
+    @Test
+    public void markTask_afterRendering_updatesDisplayString() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        Task task = new Deadline("return book", LocalDateTime.of(2019, 12, 2, 18, 0));
+        tasks.addTask(task);
+        String before = task.toString();
+
+        tasks.markTask(0);
+
+        assertEquals(before.replace("[ ]", "[X]"), task.toString());
+        tasks.unmarkTask(0);
+        assertEquals(before, task.toString());
+    }
+
+    @Test
+    public void lazyTasks_createdOnFirstUseOnly_andIndexedOnFirstSearch() {
+        List<Integer> created = new ArrayList<>();
+        TaskList tasks = new TaskList(new LazyTasks() {
+            @Override
+            public int size() {
+                return 100;
+            }
+
+            @Override
+            public Task load(int index) {
+                created.add(index);
+                return new ToDo("task " + index);
+            }
+        });
+
+        assertEquals(100, tasks.getSize());
+        assertEquals("task 42", tasks.getTasks(42).getDescription());
+        assertEquals(43, tasks.getTasks(42).getId());
+        assertEquals("task 7", tasks.getById(8).getDescription());
+        assertEquals(List.of(42, 7), created);
+
+        tasks.deleteTask(0);
+        tasks.addTask(new ToDo("task new"));
+        assertEquals(101, tasks.getTasks(99).getId());
+        assertEquals(List.of("task new"), descriptions(tasks.find("new")));
+        assertEquals(11, tasks.find("task 9").size());
+        assertEquals(100, created.size());
+        assertEquals(100, tasks.snapshot().size());
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.getDescription());
+        }
+        return descriptions;
+    }
 }
@@ -0,0 +1,182 @@
+package mrducky.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests running queries, against a plain filter over every task.
+ */
+public class TaskQueryTest {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 9, 0);
+    private static final String[] WORDS = {"read", "book", "submit", "report", "buy", "milk", "plan", "trip"};
+
+    @Test
+    public void run_allFilters_returnsSortedMatchesUpToLimit() {
+        Deadline late = new Deadline("submit report", BASE_TIME.plusDays(20));
+        Deadline early = new Deadline("Report draft", BASE_TIME.plusDays(2));
+        Deadline doneReport = new Deadline("report done", BASE_TIME.plusDays(1));
+        doneReport.setDone(true);
+        Deadline afterCutoff = new Deadline("final report", BASE_TIME.plusDays(40));
+        Deadline middle = new Deadline("report review", BASE_TIME.plusDays(10));
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(late, new ToDo("write report"), early, doneReport,
+                afterCutoff, new Event("report meeting", BASE_TIME, BASE_TIME.plusHours(1)), middle)));
+
+        TaskQuery query = new TaskQuery().ofType(Deadline.class).withDone(false)
+                .atOrBefore(TaskQuery.TimeField.DUE, BASE_TIME.plusDays(30)).containing("REPORT")
+                .sortedBy(TaskQuery.Order.DUE).limitedTo(2);
+
+        assertEquals(TaskQuery.Source.KEYWORD_INDEX, query.chooseSource(tasks));
+        assertEquals(List.of(early, middle), query.run(tasks));
+    }
+
+    @Test
+    public void run_timeRanges_useTemporalIndexes() {
+        Deadline due = new Deadline("return book", BASE_TIME.plusDays(3));
+        Event inside = new Event("trip", BASE_TIME.plusDays(1), BASE_TIME.plusDays(2));
+        Event endsLate = new Event("camp", BASE_TIME.plusDays(1), BASE_TIME.plusDays(9));
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(due, inside, endsLate, new ToDo("read"))));
+
+        TaskQuery dueQuery = new TaskQuery().atOrAfter(TaskQuery.TimeField.DUE, BASE_TIME);
+        TaskQuery eventQuery = new TaskQuery().atOrAfter(TaskQuery.TimeField.FROM, BASE_TIME)
+                .atOrBefore(TaskQuery.TimeField.TO, BASE_TIME.plusDays(5));
+
+        assertEquals(TaskQuery.Source.DUE_INDEX, dueQuery.chooseSource(tasks));
+        assertEquals(List.of(due), dueQuery.run(tasks));
+        assertEquals(TaskQuery.Source.EVENT_INDEX, eventQuery.chooseSource(tasks));
+        assertEquals(List.of(inside), eventQuery.run(tasks));
+    }
+
+    @Test
+    public void run_randomQueries_matchPlainFilter() {
+        Random random = new Random(7);
+        // Large enough for the full scans to run in parallel
+        TaskList tasks = new TaskList(generateTasks(random, TaskQuery.PARALLEL_THRESHOLD + 1000));
+        List<Task> all = tasks.snapshot();
+
+        for (int run = 0; run < 200; run++) {
+            TaskQuery query = randomQuery(random);
+            if (run % 2 == 1) {
+                query.sortedBy(TaskQuery.Order.DUE);
+            }
+            List<Task> expected = all.stream().filter(query::matches).collect(Collectors.toList());
+            List<Task> actual = query.run(tasks);
+
+            if (run % 2 == 0) {
+                assertEquals(expected, actual, "query " + run);
+            } else {
+                // Sorted by due time: the same tasks, then in due order
+                List<Task> sorted = actual.stream().sorted(Comparator.comparingLong(Task::getId))
+                        .collect(Collectors.toList());
+                assertEquals(expected, sorted, "query " + run);
+                for (int i = 1; i < actual.size(); i++) {
+                    assertTrue(dueOf(actual.get(i - 1)).compareTo(dueOf(actual.get(i))) <= 0, "query " + run);
+                }
+            }
+        }
+
+        TaskQuery limited = new TaskQuery().withDone(true).limitedTo(10);
+        assertEquals(all.stream().filter(Task::isDone).limit(10).collect(Collectors.toList()), limited.run(tasks));
+    }
+
+    @Test
+    public void run_sortedWithLimitBelowMatches_returnsFirstInOrder() {
+        Random random = new Random(11);
+        TaskList tasks = new TaskList(generateTasks(random, TaskQuery.PARALLEL_THRESHOLD + 1000));
+        Comparator<Task> byDescription = Comparator.comparing(Task::getDescription, String.CASE_INSENSITIVE_ORDER)
+                .thenComparingLong(Task::getId);
+
+        TaskQuery query = new TaskQuery().withDone(false).sortedBy(TaskQuery.Order.DESCRIPTION).limitedTo(25);
+
+        List<Task> expected = tasks.snapshot().stream().filter(query::matches).sorted(byDescription).limit(25)
+                .collect(Collectors.toList());
+        assertEquals(expected, query.run(tasks));
+    }
+
+    @Test
+    public void run_eventEndingBeforeStart_scansInsteadOfIndex() {
+        // Older data files may hold such events, as new ones cannot be added
+        Event backwards = new Event("trip", BASE_TIME.plusDays(5), BASE_TIME.plusDays(1));
+        Event forwards = new Event("camp", BASE_TIME.plusDays(2), BASE_TIME.plusDays(3));
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(backwards, forwards)));
+
+        TaskQuery query = new TaskQuery().atOrAfter(TaskQuery.TimeField.FROM, BASE_TIME.plusDays(4))
+                .atOrBefore(TaskQuery.TimeField.TO, BASE_TIME.plusDays(2));
+
+        assertEquals(TaskQuery.Source.ALL, query.chooseSource(tasks));
+        assertEquals(List.of(backwards), query.run(tasks));
+        tasks.deleteTask(0);
+        assertEquals(TaskQuery.Source.EVENT_INDEX, query.chooseSource(tasks));
+    }
+
+    @Test
+    public void matches_textInAnyCase_matchesAnywhereInDescription() {
+        TaskQuery query = new TaskQuery().containing("rEpO");
+
+        assertTrue(query.matches(new ToDo("submit REPORT")));
+        assertTrue(query.matches(new ToDo("repo")));
+        assertFalse(query.matches(new ToDo("rep")));
+        assertFalse(query.matches(new ToDo("re po")));
+    }
+
+    private static TaskQuery randomQuery(Random random) {
+        TaskQuery query = new TaskQuery();
+        if (random.nextBoolean()) {
+            query.withDone(random.nextBoolean());
+        }
+        if (random.nextInt(3) == 0) {
+            query.containing(WORDS[random.nextInt(WORDS.length)].substring(0, 1 + random.nextInt(3)));
+        }
+        switch (random.nextInt(4)) {
+        case 0:
+            query.atOrAfter(TaskQuery.TimeField.DUE, BASE_TIME.plusDays(random.nextInt(365)));
+            break;
+        case 1:
+            query.atOrBefore(TaskQuery.TimeField.TO, BASE_TIME.plusDays(random.nextInt(365)));
+            query.atOrAfter(TaskQuery.TimeField.FROM, BASE_TIME.plusDays(random.nextInt(365)));
+            break;
+        case 2:
+            query.ofType(random.nextBoolean() ? ToDo.class : Event.class);
+            break;
+        default:
+            break;
+        }
+        return query;
+    }
+
+    private static LocalDateTime dueOf(Task task) {
+        return task instanceof Deadline ? ((Deadline) task).getDueDate() : LocalDateTime.MAX;
+    }
+
+    private static List<Task> generateTasks(Random random, int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            LocalDateTime time = BASE_TIME.plusMinutes(random.nextInt(525_600));
+            Task task;
+            switch (random.nextInt(3)) {
+            case 0:
+                task = new ToDo(description);
+                break;
+            case 1:
+                task = new Deadline(description, time);
+                break;
+            default:
+                task = new Event(description, time, time.plusMinutes(30 + random.nextInt(2880)));
+                break;
+            }
+            task.setDone(random.nextInt(4) == 0);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,50 @@
+package mrducky.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the conversation transcript.
+ */
+public class TranscriptTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void get_overCapacity_readsSpilledMessagesBack() {
+        Path spillFile = tempDir.resolve("transcript.txt");
+        Transcript transcript = new Transcript(spillFile, 3);
+        String[] texts = {
+            "list", "Here are the tasks in your list:\n1.[T][ ] read book", "back\\slash", "ducks 🦆", ""
+        };
+        for (int i = 0; i < texts.length; i++) {
+            transcript.add(new Message(i % 2 == 0, texts[i]));
+        }
+
+        assertEquals(texts.length, transcript.size());
+        assertTrue(Files.exists(spillFile));
+        for (int i = texts.length - 1; i >= 0; i--) {
+            assertEquals(texts[i], transcript.get(i).getText());
+            assertEquals(i % 2 == 0, transcript.get(i).isFromUser());
+        }
+    }
+
+    @Test
+    public void close_afterSpilling_deletesSpillFile() {
+        Path spillFile = tempDir.resolve("transcript.txt");
+        Transcript transcript = new Transcript(spillFile, 1);
+        transcript.add(new Message(true, "todo read book"));
+        transcript.add(new Message(false, "Got it."));
+
+        transcript.close();
+
+        assertFalse(Files.exists(spillFile));
+    }
+}